@@ -0,0 +1,117 @@
+package edu.mayo.kmdp.terms;
+
+import edu.mayo.kmdp.repository.asset.KnowledgeAssetRepositoryService;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.omg.spec.api4kp._20200801.Answer;
+
+/**
+ * Measures the throughput of {@link TermsFHIRFacade} reindexing, against a self-contained KARS
+ * populated with {@link SyntheticTerminologies}.
+ * <p>
+ * Reports, for each (measured) reindex, the wall time, the number of assets and concepts
+ * indexed per second, and the peak heap usage.
+ * <pre>
+ *   java -cp target/benchmarks.jar edu.mayo.kmdp.terms.ReindexThroughput \
+ *     [schemes] [conceptsPerScheme] [carriersPerAsset] [parallelism] [iterations]
+ * </pre>
+ */
+public class ReindexThroughput {
+
+  static final int DEFAULT_SCHEMES = 50;
+  static final int DEFAULT_CONCEPTS_PER_SCHEME = 1_000;
+  static final int DEFAULT_CARRIERS_PER_ASSET = 2;
+  static final int DEFAULT_PARALLELISM = TermsFHIRFacade.DEFAULT_REINDEX_PARALLELISM;
+  static final int DEFAULT_ITERATIONS = 5;
+
+  private static final double NANOS_PER_SECOND = 1e9;
+  private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+  public static void main(String... args) {
+    int schemes = arg(args, 0, DEFAULT_SCHEMES);
+    int concepts = arg(args, 1, DEFAULT_CONCEPTS_PER_SCHEME);
+    int carriers = arg(args, 2, DEFAULT_CARRIERS_PER_ASSET);
+    int parallelism = arg(args, 3, DEFAULT_PARALLELISM);
+    int iterations = arg(args, 4, DEFAULT_ITERATIONS);
+
+    SyntheticTerminologies terminologies =
+        new SyntheticTerminologies(schemes, concepts, carriers);
+    KnowledgeAssetRepositoryService kars = TermsBenchmarkFixtures.newKARS();
+    long start = System.nanoTime();
+    terminologies.populate(kars);
+    System.out.printf(Locale.ROOT,
+        "Populated %d Lexicon assets (%d concepts, %d carriers each) in %.2f s%n",
+        terminologies.getNumSchemes(), terminologies.getNumConcepts(), carriers,
+        (System.nanoTime() - start) / NANOS_PER_SECOND);
+
+    // the constructor performs the first (warm up) reindex
+    TermsFHIRFacade facade = TermsBenchmarkFixtures.newFHIRFacade(kars);
+    facade.reindexParallelism = parallelism;
+
+    System.out.printf(Locale.ROOT, "%-10s %12s %12s %14s %14s%n",
+        "iteration", "wall (ms)", "assets/s", "concepts/s", "peak heap (MB)");
+    for (int j = 1; j <= iterations; j++) {
+      Result result = measure(facade, terminologies);
+      System.out.printf(Locale.ROOT, "%-10d %12.1f %12.1f %14.1f %14.1f%n",
+          j,
+          result.wallNanos / 1e6,
+          result.perSecond(terminologies.getNumSchemes()),
+          result.perSecond(terminologies.getNumConcepts()),
+          result.peakHeapBytes / BYTES_PER_MB);
+    }
+  }
+
+  static Result measure(TermsFHIRFacade facade, SyntheticTerminologies terminologies) {
+    List<MemoryPoolMXBean> heapPools = heapPools();
+    System.gc();
+    heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+    long start = System.nanoTime();
+    Answer<Void> ans = facade.reindex();
+    long wallNanos = System.nanoTime() - start;
+
+    if (!ans.isSuccess()) {
+      throw new IllegalStateException("Reindex failed");
+    }
+    int indexed = facade.listTerminologies().orElse(List.of()).size();
+    if (indexed != terminologies.getNumSchemes()) {
+      throw new IllegalStateException("Expected " + terminologies.getNumSchemes()
+          + " terminologies, indexed " + indexed);
+    }
+
+    long peakHeap = heapPools.stream()
+        .mapToLong(pool -> pool.getPeakUsage().getUsed())
+        .sum();
+    return new Result(wallNanos, peakHeap);
+  }
+
+  private static List<MemoryPoolMXBean> heapPools() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .collect(Collectors.toList());
+  }
+
+  private static int arg(String[] args, int position, int defaultValue) {
+    return args.length > position ? Integer.parseInt(args[position]) : defaultValue;
+  }
+
+  static class Result {
+
+    final long wallNanos;
+    final long peakHeapBytes;
+
+    Result(long wallNanos, long peakHeapBytes) {
+      this.wallNanos = wallNanos;
+      this.peakHeapBytes = peakHeapBytes;
+    }
+
+    double perSecond(long count) {
+      return count * NANOS_PER_SECOND / wallNanos;
+    }
+  }
+
+}
@@ -0,0 +1,160 @@
+package edu.mayo.kmdp.terms;
+
+import static org.omg.spec.api4kp._20200801.AbstractCarrier.rep;
+import static org.omg.spec.api4kp._20200801.id.IdentifierConstants.VERSION_ZERO;
+import static org.omg.spec.api4kp._20200801.surrogate.SurrogateBuilder.newSurrogate;
+import static org.omg.spec.api4kp._20200801.taxonomy.knowledgeassetcategory.KnowledgeAssetCategorySeries.Terminology_Ontology_And_Assertional_KBs;
+import static org.omg.spec.api4kp._20200801.taxonomy.krformat.SerializationFormatSeries.JSON;
+import static org.omg.spec.api4kp._20200801.taxonomy.krlanguage.KnowledgeRepresentationLanguageSeries.FHIR_STU3;
+import static org.omg.spec.api4kp._20200801.taxonomy.publicationstatus.PublicationStatusSeries.Published;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.mayo.kmdp.repository.asset.KnowledgeAssetRepositoryService;
+import edu.mayo.kmdp.util.Util;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.AbstractCarrier;
+import org.omg.spec.api4kp._20200801.AbstractCarrier.Encodings;
+import org.omg.spec.api4kp._20200801.Answer;
+import org.omg.spec.api4kp._20200801.id.ResourceIdentifier;
+import org.omg.spec.api4kp._20200801.id.SemanticIdentifier;
+import org.omg.spec.api4kp._20200801.services.KnowledgeCarrier;
+import org.omg.spec.api4kp._20200801.services.SyntacticRepresentation;
+import org.omg.spec.api4kp._20200801.surrogate.KnowledgeAsset;
+import org.omg.spec.api4kp._20200801.surrogate.Publication;
+import org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetTypeSeries;
+
+/**
+ * Generates synthetic terminologies, and registers them as Lexicon assets in a (self-contained)
+ * KARS, in the same shape used by the FHIR-based provider: each asset carries its concepts as
+ * one or more (FHIR STU3, JSON) CodeSystem artifacts.
+ * <p>
+ * The content is deterministic: the same parameters always produce the same asset, artifact and
+ * concept ids
+ */
+public class SyntheticTerminologies {
+
+  static final String NAMESPACE = "https://www.example.org/terms/synthetic/";
+  static final String VERSION_TAG = "20210401";
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final int numSchemes;
+  private final int conceptsPerScheme;
+  private final int carriersPerAsset;
+
+  /**
+   * @param numSchemes        the number of terminologies (i.e. Lexicon assets)
+   * @param conceptsPerScheme the number of concepts in each terminology
+   * @param carriersPerAsset  the number of CodeSystem artifacts the concepts of each terminology
+   *                          are split across
+   */
+  public SyntheticTerminologies(int numSchemes, int conceptsPerScheme, int carriersPerAsset) {
+    if (numSchemes < 0 || conceptsPerScheme < 0 || carriersPerAsset < 1) {
+      throw new IllegalArgumentException("Invalid synthetic terminology parameters : "
+          + numSchemes + " schemes, " + conceptsPerScheme + " concepts, "
+          + carriersPerAsset + " carriers");
+    }
+    this.numSchemes = numSchemes;
+    this.conceptsPerScheme = conceptsPerScheme;
+    this.carriersPerAsset = carriersPerAsset;
+  }
+
+  public int getNumSchemes() {
+    return numSchemes;
+  }
+
+  public int getNumConcepts() {
+    return numSchemes * conceptsPerScheme;
+  }
+
+  /**
+   * Registers the synthetic Lexicon assets, and their CodeSystem carriers, in the given KARS
+   *
+   * @param kars the (self-contained) KARS
+   * @throws IllegalStateException if an asset or carrier could not be registered
+   */
+  public void populate(KnowledgeAssetRepositoryService kars) {
+    for (int s = 0; s < numSchemes; s++) {
+      populateScheme(kars, s);
+    }
+  }
+
+  private void populateScheme(KnowledgeAssetRepositoryService kars, int s) {
+    ResourceIdentifier assetId = SemanticIdentifier.newId(schemeUUID(s), VERSION_TAG);
+
+    KnowledgeAsset surrogate = newSurrogate(assetId).get()
+        .withName("Synthetic Scheme " + s)
+        .withFormalCategory(Terminology_Ontology_And_Assertional_KBs)
+        .withFormalType(KnowledgeAssetTypeSeries.Lexicon)
+        .withLifecycle(new Publication().withPublicationStatus(Published));
+    check(kars.setKnowledgeAssetVersion(assetId.getUuid(), assetId.getVersionTag(), surrogate),
+        assetId);
+
+    SyntacticRepresentation fhirRep =
+        rep(FHIR_STU3, JSON, Charset.defaultCharset(), Encodings.DEFAULT);
+    for (int c = 0; c < carriersPerAsset; c++) {
+      int from = (int) ((long) conceptsPerScheme * c / carriersPerAsset);
+      int to = (int) ((long) conceptsPerScheme * (c + 1) / carriersPerAsset);
+      KnowledgeCarrier carrier = AbstractCarrier.of(codeSystem(s, from, to), fhirRep)
+          .withAssetId(assetId)
+          .withArtifactId(SemanticIdentifier.newId(
+              Util.uuid(schemeUri(s) + "/artifact/" + c), VERSION_ZERO));
+      check(kars.addKnowledgeAssetCarrier(assetId.getUuid(), assetId.getVersionTag(), carrier),
+          assetId);
+    }
+  }
+
+  /**
+   * Serializes the concepts [from, to) of a scheme as a FHIR STU3 CodeSystem
+   */
+  byte[] codeSystem(int s, int from, int to) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(256 + 256 * (to - from));
+    try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+      json.writeStartObject();
+      json.writeStringField("resourceType", "CodeSystem");
+      json.writeStringField("url", schemeUri(s));
+      json.writeStringField("version", VERSION_TAG);
+      json.writeStringField("name", "SyntheticScheme" + s);
+      json.writeStringField("status", "active");
+      json.writeStringField("content", "complete");
+      json.writeArrayFieldStart("concept");
+      for (int j = from; j < to; j++) {
+        json.writeStartObject();
+        json.writeStringField("code", conceptUUID(s, j).toString());
+        json.writeStringField("display", "Synthetic Concept " + s + "." + j);
+        json.writeStringField("definition", schemeUri(s) + "#concept" + j);
+        json.writeEndObject();
+      }
+      json.writeEndArray();
+      json.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  static String schemeUri(int s) {
+    return NAMESPACE + "scheme" + s;
+  }
+
+  static UUID schemeUUID(int s) {
+    return Util.uuid(schemeUri(s));
+  }
+
+  static UUID conceptUUID(int s, int j) {
+    return Util.uuid(schemeUri(s) + "#concept" + j);
+  }
+
+  private static void check(Answer<Void> ans, ResourceIdentifier assetId) {
+    if (!ans.isSuccess()) {
+      throw new IllegalStateException(
+          "Unable to register synthetic Lexicon asset " + assetId.getUuid());
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+package edu.mayo.kmdp.terms;
+
+import static edu.mayo.kmdp.terms.TermsTestUtil.prepopulateWithKnownKMDTaxonomy;
+
+import edu.mayo.kmdp.repository.asset.KnowledgeAssetRepositoryServerProperties;
+import edu.mayo.kmdp.repository.asset.KnowledgeAssetRepositoryService;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.api.repository.asset.v4.KnowledgeAssetCatalogApi;
+import org.omg.spec.api4kp._20200801.api.repository.asset.v4.KnowledgeAssetRepositoryApi;
+import org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetTypeSeries;
+import org.omg.spec.api4kp._20200801.taxonomy.knowledgeoperation.KnowledgeProcessingOperationSeries;
+
+/**
+ * Providers and identifiers shared by the benchmarks. The providers are built from the same
+ * fixtures used by the functional tests
+ */
+final class TermsBenchmarkFixtures {
+
+  static final String API4KP_VERSION_TAG = "20210401";
+
+  /**
+   * KnowledgeAssetType - indexed by both the enum-based and the FHIR-based providers
+   */
+  static final UUID KAT_SCHEME = KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid();
+  static final String KAT_CONCEPT_ID = "5c742ccc-fb77-3f33-87f5-663c2d9d251c";
+
+  /**
+   * KnowledgeProcessingOperation - indexed by the enum-based provider only
+   */
+  static final UUID KPO_SCHEME =
+      KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid();
+  static final String KPO_CONCEPT_ID = "d76a9299-4e72-36c1-a261-2265afe11582";
+  static final String KPO_ANCESTOR_ID = "a5628370-845c-350f-b0e7-6cab66aac127";
+  static final String KPO_CONCEPT_TAG = "KnowledgeBaseBuildingTask";
+
+  static final String MISSING_CONCEPT_ID = "local-code-0000";
+
+  static final String LABEL_FILTER = "decision task";
+
+  private TermsBenchmarkFixtures() {
+    // static fixtures only
+  }
+
+  static TermsProvider newEnumProvider() {
+    return TermsProvider.newTermsProvider();
+  }
+
+  static KnowledgeAssetRepositoryService newKARS() {
+    return KnowledgeAssetRepositoryService.selfContainedRepository(
+        new KnowledgeAssetRepositoryServerProperties(
+            TermsBenchmarkFixtures.class.getResourceAsStream("/application.test.properties")));
+  }
+
+  static TermsFHIRFacade newFHIRFacade() {
+    KnowledgeAssetRepositoryService kars = newKARS();
+    prepopulateWithKnownKMDTaxonomy(kars);
+    return newFHIRFacade(kars);
+  }
+
+  static TermsFHIRFacade newFHIRFacade(KnowledgeAssetRepositoryService kars) {
+    return new TermsFHIRFacade(
+        KnowledgeAssetCatalogApi.newInstance(kars),
+        KnowledgeAssetRepositoryApi.newInstance(kars));
+  }
+}
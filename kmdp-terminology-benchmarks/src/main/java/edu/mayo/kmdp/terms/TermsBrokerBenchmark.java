@@ -0,0 +1,89 @@
+package edu.mayo.kmdp.terms;
+
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.API4KP_VERSION_TAG;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KAT_CONCEPT_ID;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KPO_CONCEPT_ID;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KPO_SCHEME;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.MISSING_CONCEPT_ID;
+
+import edu.mayo.kmdp.terms.TermsBrokerImpl.ResolutionStrategy;
+import java.util.concurrent.TimeUnit;
+import org.omg.spec.api4kp._20200801.Answer;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the resolution of calls by the {@link TermsBrokerImpl}: hits in the FHIR-based
+ * provider, fallthrough to the enum-based provider, and misses in both, under each resolution
+ * strategy, with and without the cache of misses
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class TermsBrokerBenchmark {
+
+  @Param({"SERIAL", "CONCURRENT"})
+  public String resolution;
+
+  @Param({"0", "300"})
+  public long negativeCacheTtlSeconds;
+
+  TermsBrokerImpl broker;
+
+  @Setup
+  public void setup() {
+    broker = new TermsBrokerImpl(
+        TermsBenchmarkFixtures.newFHIRFacade(),
+        TermsBenchmarkFixtures.newEnumProvider());
+    broker.resolution = ResolutionStrategy.valueOf(resolution);
+    broker.negativeCacheTtlSeconds = negativeCacheTtlSeconds;
+  }
+
+  @TearDown
+  public void tearDown() {
+    broker.shutdown();
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> lookupFHIRTerm() {
+    return broker.lookupTerm(KAT_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> lookupFallthroughTerm() {
+    return broker.lookupTerm(KPO_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> lookupMissingTerm() {
+    return broker.lookupTerm(MISSING_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> getRoutedTerm() {
+    return broker.getTerm(KPO_SCHEME, API4KP_VERSION_TAG, KPO_CONCEPT_ID);
+  }
+
+  @Threads(1)
+  public static class SingleThreaded extends TermsBrokerBenchmark {
+  }
+
+  @Threads(4)
+  public static class MultiThreaded extends TermsBrokerBenchmark {
+  }
+}
@@ -0,0 +1,70 @@
+package edu.mayo.kmdp.terms;
+
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.API4KP_VERSION_TAG;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KAT_CONCEPT_ID;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KAT_SCHEME;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.LABEL_FILTER;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.omg.spec.api4kp._20200801.Answer;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the read paths of the FHIR-based {@link TermsFHIRFacade}, backed by an in-memory
+ * KARS, with one and with several concurrent client threads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class TermsFHIRFacadeBenchmark {
+
+  TermsFHIRFacade facade;
+
+  @Setup
+  public void setup() {
+    facade = TermsBenchmarkFixtures.newFHIRFacade();
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> lookupTerm() {
+    return facade.lookupTerm(KAT_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> getTerm() {
+    return facade.getTerm(KAT_SCHEME, API4KP_VERSION_TAG, KAT_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<List<ConceptDescriptor>> getTerms() {
+    return facade.getTerms(KAT_SCHEME, API4KP_VERSION_TAG, "");
+  }
+
+  @Benchmark
+  public Answer<List<ConceptDescriptor>> getTermsFiltered() {
+    return facade.getTerms(KAT_SCHEME, API4KP_VERSION_TAG, LABEL_FILTER);
+  }
+
+  @Threads(1)
+  public static class SingleThreaded extends TermsFHIRFacadeBenchmark {
+  }
+
+  @Threads(4)
+  public static class MultiThreaded extends TermsFHIRFacadeBenchmark {
+  }
+}
@@ -0,0 +1,88 @@
+package edu.mayo.kmdp.terms;
+
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.API4KP_VERSION_TAG;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KAT_SCHEME;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KPO_ANCESTOR_ID;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KPO_CONCEPT_ID;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KPO_CONCEPT_TAG;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.KPO_SCHEME;
+import static edu.mayo.kmdp.terms.TermsBenchmarkFixtures.LABEL_FILTER;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.omg.spec.api4kp._20200801.Answer;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the read paths of the enum-based {@link TermsProvider}, with one and with several
+ * concurrent client threads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class TermsProviderBenchmark {
+
+  TermsProvider provider;
+
+  @Setup
+  public void setup() {
+    provider = TermsBenchmarkFixtures.newEnumProvider();
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> lookupTerm() {
+    return provider.lookupTerm(KPO_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> lookupTermByTag() {
+    return provider.lookupTerm(KPO_CONCEPT_TAG);
+  }
+
+  @Benchmark
+  public Answer<ConceptDescriptor> getTerm() {
+    return provider.getTerm(KPO_SCHEME, API4KP_VERSION_TAG, KPO_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<Boolean> isAncestor() {
+    return provider.isAncestor(KPO_SCHEME, API4KP_VERSION_TAG, KPO_CONCEPT_ID, KPO_ANCESTOR_ID);
+  }
+
+  @Benchmark
+  public Answer<List<ConceptDescriptor>> listAncestors() {
+    return provider.listAncestors(KPO_SCHEME, API4KP_VERSION_TAG, KPO_CONCEPT_ID);
+  }
+
+  @Benchmark
+  public Answer<List<ConceptDescriptor>> getTerms() {
+    return provider.getTerms(KAT_SCHEME, API4KP_VERSION_TAG, "");
+  }
+
+  @Benchmark
+  public Answer<List<ConceptDescriptor>> getTermsFiltered() {
+    return provider.getTerms(KAT_SCHEME, API4KP_VERSION_TAG, LABEL_FILTER);
+  }
+
+  @Threads(1)
+  public static class SingleThreaded extends TermsProviderBenchmark {
+  }
+
+  @Threads(4)
+  public static class MultiThreaded extends TermsProviderBenchmark {
+  }
+}
@@ -0,0 +1,39 @@
+package edu.mayo.kmdp.terms.impl;
+
+/**
+ * The header of the binary index of the materialized terms, shared by the TerminologyIndexer,
+ * which writes the index, and the terms providers, which read it.
+ * <p>
+ * Layout: the magic number and format version, followed by the number of schemes, and one block
+ * per scheme, keyed by the scheme (version) key and prefixed by its length in bytes. Descriptors
+ * are encoded by the {@link ConceptDescriptorCodec}
+ */
+public final class BinaryIndexFormat {
+
+  public static final int MAGIC = 0x4B544249;
+
+  /**
+   * Must change whenever the layout, or the encoding of the descriptors, changes
+   */
+  public static final int FORMAT_VERSION = 2;
+
+  private BinaryIndexFormat() {
+    // static functions only
+  }
+
+  /**
+   * Derives the location of the binary index from the location of the JSON index of the
+   * terminologies, which it is written next to, replacing the .json extension (if any) with .bin
+   *
+   * @param path the location of the JSON index
+   * @return the location of the binary index
+   */
+  public static String toBinaryIndexPath(String path) {
+    String base = path.trim();
+    if (base.endsWith(".json")) {
+      base = base.substring(0, base.length() - ".json".length());
+    }
+    return base + ".bin";
+  }
+
+}
@@ -0,0 +1,210 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * Compact binary encoding of the (non-relational) properties of ConceptDescriptors, and of the
+ * identifiers they are composed of.
+ * <p>
+ * Ancestors and closures are not encoded: decoded descriptors have no ancestors, and it is up to
+ * the client to restore the relationships between the descriptors, if any
+ */
+public final class ConceptDescriptorCodec {
+
+  private ConceptDescriptorCodec() {
+    // static functions only
+  }
+
+  /**
+   * Writes the properties of a ConceptDescriptor
+   *
+   * @param cd  the descriptor
+   * @param out the destination
+   * @throws IOException if the descriptor could not be written
+   */
+  public static void writeDescriptor(ConceptDescriptor cd, DataOutput out) throws IOException {
+    writeUUID(cd.getUuid(), out);
+    writeString(cd.getTag(), out);
+    writeString(cd.getName(), out);
+    writeURI(cd.getResourceId(), out);
+    writeString(cd.getVersionTag(), out);
+    writeURI(cd.getVersionId(), out);
+    writeURI(cd.getNamespaceUri(), out);
+    writeURI(cd.getReferentId(), out);
+    writeDate(cd.getEstablishedOn(), out);
+
+    Map<String, String> labels = cd.getLabels();
+    out.writeInt(labels != null ? labels.size() : 0);
+    if (labels != null) {
+      for (Map.Entry<String, String> label : labels.entrySet()) {
+        writeString(label.getKey(), out);
+        writeString(label.getValue(), out);
+      }
+    }
+  }
+
+  /**
+   * Reads the properties of a ConceptDescriptor, as written by {@link #writeDescriptor}
+   *
+   * @param in the source
+   * @return a new ConceptDescriptor, with no ancestors
+   * @throws IOException if the descriptor could not be read
+   */
+  public static ConceptDescriptor readDescriptor(DataInput in) throws IOException {
+    ConceptDescriptor cd = new ConceptDescriptor()
+        .withUuid(readUUID(in))
+        .withTag(readString(in))
+        .withName(readString(in))
+        .withResourceId(readURI(in))
+        .withVersionTag(readString(in))
+        .withVersionId(readURI(in))
+        .withNamespaceUri(readURI(in))
+        .withReferentId(readURI(in))
+        .withEstablishedOn(readDate(in));
+
+    int numLabels = in.readInt();
+    Map<String, String> labels = new LinkedHashMap<>();
+    for (int j = 0; j < numLabels; j++) {
+      labels.put(readString(in), readString(in));
+    }
+    cd.withLabels(labels);
+    cd.setAncestors(new Term[0]);
+    cd.setClosure(new Term[0]);
+    return cd;
+  }
+
+  /**
+   * Reads the identifiers of a ConceptDescriptor, as written by {@link #writeDescriptor}, skipping
+   * its other properties, so that no descriptor is created
+   *
+   * @param in     the source
+   * @param action the consumer of the identifiers
+   * @throws IOException if the descriptor could not be read
+   */
+  public static void readDescriptorIds(DataInput in, DescriptorIdConsumer action)
+      throws IOException {
+    UUID uuid = readUUID(in);
+    String tag = readString(in);
+    skipString(in);
+    String resourceId = readString(in);
+    // version tag, version id, namespace and referent
+    for (int j = 0; j < 4; j++) {
+      skipString(in);
+    }
+    if (in.readBoolean()) {
+      in.readLong();
+    }
+    int numLabels = in.readInt();
+    for (int j = 0; j < 2 * numLabels; j++) {
+      skipString(in);
+    }
+    action.accept(uuid, tag, resourceId);
+  }
+
+  public static void writeUUID(UUID uuid, DataOutput out) throws IOException {
+    out.writeBoolean(uuid != null);
+    if (uuid != null) {
+      out.writeLong(uuid.getMostSignificantBits());
+      out.writeLong(uuid.getLeastSignificantBits());
+    }
+  }
+
+  public static UUID readUUID(DataInput in) throws IOException {
+    return in.readBoolean()
+        ? new UUID(in.readLong(), in.readLong())
+        : null;
+  }
+
+  /**
+   * Writes a String as UTF-8 bytes, prefixed by their number.
+   * Unlike {@link DataOutput#writeUTF(String)}, the length of the String is not limited to 64KB
+   *
+   * @param str the String, or null
+   * @param out the destination
+   * @throws IOException if the String could not be written
+   */
+  public static void writeString(String str, DataOutput out) throws IOException {
+    out.writeBoolean(str != null);
+    if (str != null) {
+      byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  public static String readString(DataInput in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public static void skipString(DataInput in) throws IOException {
+    if (in.readBoolean()) {
+      skipFully(in, in.readInt());
+    }
+  }
+
+  /**
+   * Skips exactly the given number of bytes
+   *
+   * @param in       the source
+   * @param numBytes the number of bytes to be skipped
+   * @throws IOException if the source ends before
+   */
+  public static void skipFully(DataInput in, int numBytes) throws IOException {
+    int remaining = numBytes;
+    while (remaining > 0) {
+      int skipped = in.skipBytes(remaining);
+      if (skipped <= 0) {
+        in.readByte();
+        skipped = 1;
+      }
+      remaining -= skipped;
+    }
+  }
+
+  public static void writeURI(URI uri, DataOutput out) throws IOException {
+    writeString(uri != null ? uri.toString() : null, out);
+  }
+
+  public static URI readURI(DataInput in) throws IOException {
+    String str = readString(in);
+    return str != null ? URI.create(str) : null;
+  }
+
+  public static void writeDate(Date date, DataOutput out) throws IOException {
+    out.writeBoolean(date != null);
+    if (date != null) {
+      out.writeLong(date.getTime());
+    }
+  }
+
+  public static Date readDate(DataInput in) throws IOException {
+    return in.readBoolean()
+        ? new Date(in.readLong())
+        : null;
+  }
+
+  /**
+   * Consumes the identifiers of a ConceptDescriptor
+   */
+  @FunctionalInterface
+  public interface DescriptorIdConsumer {
+
+    void accept(UUID uuid, String tag, String resourceId);
+  }
+
+}
@@ -0,0 +1,63 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class ConceptDescriptorCodecTest {
+
+  @Test
+  void testRoundTrip() throws IOException {
+    ConceptDescriptor cd = new ConceptDescriptor()
+        .withUuid(UUID.randomUUID())
+        .withTag("code")
+        .withName("Test Concept \u00e8\u4e2d")
+        .withNamespaceUri(URI.create("http://test/scheme"))
+        .withLabels(Collections.singletonMap("alt", "Test"));
+
+    ConceptDescriptor cd2 = roundTrip(cd);
+    assertEquals(cd.getUuid(), cd2.getUuid());
+    assertEquals(cd.getTag(), cd2.getTag());
+    assertEquals(cd.getName(), cd2.getName());
+    assertEquals(cd.getNamespaceUri(), cd2.getNamespaceUri());
+    assertEquals(cd.getLabels(), cd2.getLabels());
+    assertNull(cd2.getReferentId());
+    assertNull(cd2.getEstablishedOn());
+  }
+
+  @Test
+  void testLongStrings() throws IOException {
+    // beyond the 64KB limit of DataOutput.writeUTF
+    String definition = String.join("", Collections.nCopies(50_000, "\u00e8\u4e2d"));
+    ConceptDescriptor cd = new ConceptDescriptor()
+        .withUuid(UUID.randomUUID())
+        .withName(definition)
+        .withLabels(Collections.singletonMap("definition", definition));
+
+    ConceptDescriptor cd2 = roundTrip(cd);
+    assertEquals(definition, cd2.getName());
+    assertEquals(definition, cd2.getLabels().get("definition"));
+  }
+
+  private ConceptDescriptor roundTrip(ConceptDescriptor cd) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      ConceptDescriptorCodec.writeDescriptor(cd, out);
+    }
+    try (DataInputStream in = new DataInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      return ConceptDescriptorCodec.readDescriptor(in);
+    }
+  }
+
+}
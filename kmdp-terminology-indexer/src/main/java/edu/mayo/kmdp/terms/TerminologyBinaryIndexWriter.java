@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2018 Mayo Clinic (RSTKNOWLEDGEMGMT@mayo.edu)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package edu.mayo.kmdp.terms;
+
+import static edu.mayo.kmdp.terms.impl.BinaryIndexFormat.FORMAT_VERSION;
+import static edu.mayo.kmdp.terms.impl.BinaryIndexFormat.MAGIC;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeDescriptor;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeUUID;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.ConceptTerm;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * Writes the fully materialized ConceptDescriptors of the indexed terminologies in a compact
+ * binary format, so that terms providers can load them without initializing the terminology
+ * classes.
+ * <p>
+ * Layout: see {@link edu.mayo.kmdp.terms.impl.BinaryIndexFormat}. Each block lists the
+ * descriptors of the concepts in the scheme, followed by the descriptors of any other concept
+ * reachable through the ancestor relationships. Each descriptor is followed by the positions of
+ * its ancestors and of its closure, within the same block.
+ */
+public class TerminologyBinaryIndexWriter {
+
+  /**
+   * The terms of each scheme, by scheme key
+   */
+  private final Map<UUID, ConceptTerm[]> schemes = new LinkedHashMap<>();
+
+  /**
+   * Adds the terms of a terminology to the index
+   *
+   * @param schemeKey the UUID-based key of the terminology version
+   * @param terms     the terms in the terminology
+   */
+  public void addScheme(UUID schemeKey, ConceptTerm[] terms) {
+    schemes.put(schemeKey, terms);
+  }
+
+  /**
+   * Writes the binary index
+   *
+   * @param f the output file
+   * @throws IOException if the index could not be written
+   */
+  public void write(File f) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(f)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(schemes.size());
+      for (Map.Entry<UUID, ConceptTerm[]> scheme : schemes.entrySet()) {
+        byte[] block = encodeScheme(scheme.getValue());
+        writeUUID(scheme.getKey(), out);
+        out.writeInt(block.length);
+        out.write(block);
+      }
+    }
+  }
+
+  private byte[] encodeScheme(ConceptTerm[] terms) throws IOException {
+    List<ConceptDescriptor> descriptors = new ArrayList<>();
+    Map<UUID, Integer> positions = new HashMap<>();
+    Deque<ConceptTerm> pending = new ArrayDeque<>();
+
+    for (ConceptTerm term : terms) {
+      positionOf(term, descriptors, positions, pending);
+    }
+    int numConcepts = descriptors.size();
+    // include the ancestors of the concepts, transitively
+    while (!pending.isEmpty()) {
+      ConceptDescriptor cd = descriptors.get(positions.get(pending.pop().getUuid()));
+      relatedPositions(cd.getAncestors(), descriptors, positions, pending);
+      relatedPositions(cd.getClosure(), descriptors, positions, pending);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(descriptors.size());
+      out.writeInt(numConcepts);
+      for (ConceptDescriptor cd : descriptors) {
+        writeDescriptor(cd, out);
+        writePositions(relatedPositions(cd.getAncestors(), descriptors, positions, pending), out);
+        writePositions(relatedPositions(cd.getClosure(), descriptors, positions, pending), out);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private int positionOf(ConceptTerm term, List<ConceptDescriptor> descriptors,
+      Map<UUID, Integer> positions, Deque<ConceptTerm> pending) {
+    Integer pos = positions.get(term.getUuid());
+    if (pos == null) {
+      pos = descriptors.size();
+      descriptors.add(ConceptDescriptor.toConceptDescriptor(term));
+      positions.put(term.getUuid(), pos);
+      pending.add(term);
+    }
+    return pos;
+  }
+
+  private int[] relatedPositions(Term[] related, List<ConceptDescriptor> descriptors,
+      Map<UUID, Integer> positions, Deque<ConceptTerm> pending) {
+    if (related == null) {
+      return new int[0];
+    }
+    return Arrays.stream(related)
+        .filter(ConceptTerm.class::isInstance)
+        .mapToInt(t -> positionOf((ConceptTerm) t, descriptors, positions, pending))
+        .toArray();
+  }
+
+  private static void writePositions(int[] positions, DataOutputStream out) throws IOException {
+    out.writeInt(positions.length);
+    for (int pos : positions) {
+      out.writeInt(pos);
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import edu.mayo.kmdp.terms.exceptions.TermIndexerException;
+import edu.mayo.kmdp.terms.impl.BinaryIndexFormat;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -30,12 +31,15 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.omg.spec.api4kp._20200801.id.ResourceIdentifier;
 import org.omg.spec.api4kp._20200801.series.Series;
+import org.omg.spec.api4kp._20200801.terms.ConceptTerm;
 import org.omg.spec.api4kp._20200801.terms.TypedTerm;
 import org.reflections.Reflections;
 
 /**
  * This class reads the terminology files for values which are defined in the TerminologyScheme. It
- * outputs those values in a json file.
+ * outputs those values in a json file, and the materialized terms in a companion binary index.
+ *
+ * @see TerminologyBinaryIndexWriter
  */
 public class TerminologyIndexer {
 
@@ -62,9 +66,11 @@ public class TerminologyIndexer {
 
   /**
    * Gets the files and stores the terminology metadata as JSON Objects. Write the output file in
-   * the path location. The method is called by the provider pom using mojo execute.
+   * the path location, and the binary index of the terms next to it. The method is called by the
+   * provider pom using mojo execute.
    *
    * @param path the path for the output file
+   * @see #toBinaryIndexPath(String)
    */
   public void execute(String path, String filter) {
     try {
@@ -93,11 +99,42 @@ public class TerminologyIndexer {
       }
       writer.writeValue(f, terminologyModels);
 
+      writeBinaryIndex(new File(toBinaryIndexPath(path)));
+
     } catch (IOException | IllegalAccessException e) {
       throw new TermIndexerException();
     }
   }
 
+  /**
+   * Derives the path of the binary index from the path of the JSON index, replacing the .json
+   * extension (if any) with .bin - where the terms providers look for it by default
+   *
+   * @param path the path for the JSON output file
+   * @return the path for the binary output file
+   */
+  public static String toBinaryIndexPath(String path) {
+    return BinaryIndexFormat.toBinaryIndexPath(path);
+  }
+
+  /**
+   * Writes the materialized terms of the terminologies found by {@link
+   * #readFilesToFindTerminologies(String)}
+   *
+   * @param f the binary output file
+   * @throws IOException if the file could not be written
+   */
+  protected void writeBinaryIndex(File f) throws IOException {
+    TerminologyBinaryIndexWriter binaryWriter = new TerminologyBinaryIndexWriter();
+    for (TerminologySchemeDescr terminology : terminologyModels) {
+      if (ConceptTerm.class.isAssignableFrom(terminology.termClass)) {
+        binaryWriter.addScheme(terminology.getKey(),
+            (ConceptTerm[]) terminology.termClass.getEnumConstants());
+      }
+    }
+    binaryWriter.write(f);
+  }
+
   /**
    * Read the files and determine which is a terminology. For each of the terminologies, get the
    * metadata and store as TerminologyScheme. Store all the terminologies in a Collection
@@ -142,6 +179,7 @@ public class TerminologyIndexer {
 
         String name = subtype.getName();
         terminology.setName(name);
+        terminology.termClass = subtype;
 
         String schemeId = schemeVersionIdentifier.getVersionId().toString();
         terminology.setSchemeId(schemeId);
@@ -168,6 +206,8 @@ public class TerminologyIndexer {
     String version;
     String schemeId;
     URI seriesId;
+    // not exported to JSON - used to build the binary index
+    Class<?> termClass;
 
     public UUID getKey() {
       return key;
@@ -1,5 +1,7 @@
 package edu.mayo.kmdp.terms;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
@@ -30,4 +32,23 @@ public class TerminologyIndexerTest {
     }
   }
 
+  /**
+   * Test will fail if the binary index is not written next to the JSON output file.
+   */
+  @Test
+  void testWriteBinaryIndex() {
+    File tmpFile = new File(tmp.toFile(), "test.json");
+    provider.execute(tmpFile.getPath(), null);
+
+    File binFile = new File(tmp.toFile(), "test.bin");
+    assertTrue(binFile.exists());
+    assertTrue(binFile.length() > 0);
+  }
+
+  @Test
+  void testBinaryIndexPath() {
+    assertEquals("/tmp/terms.bin", TerminologyIndexer.toBinaryIndexPath("/tmp/terms.json"));
+    assertEquals("/tmp/terms.bin", TerminologyIndexer.toBinaryIndexPath("/tmp/terms"));
+  }
+
 }
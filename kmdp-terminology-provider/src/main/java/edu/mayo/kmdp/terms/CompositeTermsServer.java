@@ -1,7 +1,14 @@
 package edu.mayo.kmdp.terms;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.Answer;
 import org.omg.spec.api4kp._20200801.api.terminology.v4.server.TermsApiInternal;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
 
 /**
  * Composite {@link TermsApiInternal} Supports components that implement {@link TermsApiInternal}
@@ -39,4 +46,66 @@ public interface CompositeTermsServer extends TermsApiInternal {
    * @return the FHIR-based component of a broker, this for FHIR-based providers, empty othersise
    */
   Optional<TermsApiInternal> getFHIRBasedComponent();
+
+  /**
+   * @return when the content served by this server was last (successfully) indexed, if known.
+   * Servers with static content, which is never reindexed, return empty
+   */
+  default Optional<Instant> getLastIndexed() {
+    return Optional.empty();
+  }
+
+  /**
+   * @return a counter that changes whenever the content served by this server changes (e.g. on
+   * reindex), so that clients can tell whether what they derived from the content is still current.
+   * Servers with static content always return 0
+   */
+  default long getIndexGeneration() {
+    return 0;
+  }
+
+  /**
+   * @return the number of Concepts currently indexed by this server, or -1 if unknown
+   */
+  default long getIndexSize() {
+    return -1;
+  }
+
+  /**
+   * Resolves a batch of Concepts in one call. If a terminology is given, the Concepts are resolved
+   * within that terminology, as per {@link #getTerm(UUID, String, String)}, otherwise across all
+   * terminologies, as per {@link #lookupTerm(String)}
+   *
+   * @param vocabularyId the UUID of a terminology, or null
+   * @param versionTag   the version of the terminology, or null
+   * @param conceptIds   the ids of the Concepts
+   * @return the descriptors of the Concepts that could be resolved, by concept id. Concepts that
+   * could not be resolved are omitted
+   */
+  default Answer<Map<String, ConceptDescriptor>> resolveTerms(
+      UUID vocabularyId, String versionTag, List<String> conceptIds) {
+    return Answer.of(resolveEach(this, vocabularyId, versionTag, conceptIds));
+  }
+
+  /**
+   * Resolves a batch of Concepts one by one, using a provider that does not support batches
+   *
+   * @param provider     the provider
+   * @param vocabularyId the UUID of a terminology, or null
+   * @param versionTag   the version of the terminology, or null
+   * @param conceptIds   the ids of the Concepts
+   * @return the descriptors of the Concepts that could be resolved, by concept id
+   * @see #resolveTerms(UUID, String, List)
+   */
+  static Map<String, ConceptDescriptor> resolveEach(TermsApiInternal provider,
+      UUID vocabularyId, String versionTag, List<String> conceptIds) {
+    Map<String, ConceptDescriptor> resolved = new LinkedHashMap<>();
+    for (String conceptId : conceptIds) {
+      Answer<ConceptDescriptor> answer = vocabularyId != null
+          ? provider.getTerm(vocabularyId, versionTag, conceptId)
+          : provider.lookupTerm(conceptId);
+      answer.ifPresent(cd -> resolved.put(conceptId, cd));
+    }
+    return resolved;
+  }
 }
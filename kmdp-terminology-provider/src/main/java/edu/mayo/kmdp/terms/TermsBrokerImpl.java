@@ -1,18 +1,41 @@
 package edu.mayo.kmdp.terms;
 
 import static org.omg.spec.api4kp._20200801.Answer.firstDo;
+import static org.omg.spec.api4kp._20200801.id.SemanticIdentifier.newKey;
 
+import edu.mayo.kmdp.terms.impl.NegativeCache;
+import edu.mayo.kmdp.terms.metrics.TermsMetrics;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import org.omg.spec.api4kp._20200801.Answer;
 import org.omg.spec.api4kp._20200801.api.terminology.v4.server.TermsApiInternal;
+import org.omg.spec.api4kp._20200801.id.KeyIdentifier;
 import org.omg.spec.api4kp._20200801.id.Pointer;
 import org.omg.spec.api4kp._20200801.services.KPComponent;
 import org.omg.spec.api4kp._20200801.services.KPServer;
 import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @KPServer
@@ -20,6 +43,32 @@ import org.springframework.stereotype.Component;
 @Component
 public class TermsBrokerImpl implements TermsApiInternal, CompositeTermsServer {
 
+  private static final Logger logger = LoggerFactory.getLogger(TermsBrokerImpl.class);
+
+  /**
+   * The name of the broker, in the metrics
+   */
+  public static final String METRICS_NAME = "broker";
+
+  static final int DEFAULT_FAN_OUT_THREADS = 8;
+  static final long DEFAULT_NEGATIVE_CACHE_TTL_SECONDS = 300;
+  static final int DEFAULT_NEGATIVE_CACHE_MAX_SIZE = 10000;
+
+  /**
+   * Strategies for resolving a call across the providers
+   */
+  public enum ResolutionStrategy {
+    /**
+     * The providers are queried one after the other, in order of precedence, until one succeeds
+     */
+    SERIAL,
+    /**
+     * The providers are queried in parallel. The answers are still considered in order of
+     * precedence, and the providers with lower precedence are cancelled once an answer succeeds
+     */
+    CONCURRENT
+  }
+
   @Autowired
   @KPComponent(implementation = "enum")
   protected TermsApiInternal enumDrivenTerms;
@@ -28,6 +77,54 @@ public class TermsBrokerImpl implements TermsApiInternal, CompositeTermsServer {
   @KPComponent(implementation = "fhir")
   protected TermsApiInternal fhirAssetDrivenTerms;
 
+  /**
+   * The strategy used to resolve the calls across the providers
+   */
+  @Value("${edu.mayo.kmdp.terms.broker.resolution:SERIAL}")
+  protected ResolutionStrategy resolution = ResolutionStrategy.SERIAL;
+
+  /**
+   * The number of threads used to query the providers, in CONCURRENT mode
+   */
+  @Value("${edu.mayo.kmdp.terms.broker.fanOutThreads:8}")
+  protected int fanOutThreads = DEFAULT_FAN_OUT_THREADS;
+
+  private ExecutorService fanOutExecutor;
+
+  /**
+   * How long a Concept that could not be found by any provider is remembered as missing.
+   * Set to 0 to disable the cache of misses
+   */
+  @Value("${edu.mayo.kmdp.terms.broker.negativeCache.ttlSeconds:300}")
+  protected long negativeCacheTtlSeconds = DEFAULT_NEGATIVE_CACHE_TTL_SECONDS;
+
+  /**
+   * The maximum number of misses remembered
+   */
+  @Value("${edu.mayo.kmdp.terms.broker.negativeCache.maxSize:10000}")
+  protected int negativeCacheMaxSize = DEFAULT_NEGATIVE_CACHE_MAX_SIZE;
+
+  private NegativeCache negativeCache;
+
+  /**
+   * Maps the key (UUID and version) of each terminology to the provider that owns it, i.e. the
+   * provider with the highest precedence that lists it. Built on first use, and rebuilt when the
+   * index generation changes. A provider that cannot list its terminologies (e.g. the FHIR facade,
+   * while offline) owns no routes until the generation changes, which it does when the provider
+   * goes back online
+   */
+  private volatile Routes routes;
+
+  /**
+   * Incremented whenever the terminologies are cleared through the broker
+   */
+  private final AtomicLong clearings = new AtomicLong();
+
+  /**
+   * Records the calls made on the broker, and how they are resolved across the providers
+   */
+  protected TermsMetrics metrics = TermsMetrics.noop();
+
   public TermsBrokerImpl() {
     //
   }
@@ -37,39 +134,341 @@ public class TermsBrokerImpl implements TermsApiInternal, CompositeTermsServer {
     this.fhirAssetDrivenTerms = fhirAssetDrivenTerms;
   }
 
+  @Autowired(required = false)
+  public void setMetrics(TermsMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   List<TermsApiInternal> providers() {
     return Arrays.asList(fhirAssetDrivenTerms, enumDrivenTerms);
   }
 
+  /**
+   * @param vocabularyId the UUID of a terminology
+   * @param versionTag   the version of the terminology
+   * @return the provider that owns the terminology, if known
+   */
+  Optional<TermsApiInternal> owner(UUID vocabularyId, String versionTag) {
+    return Optional.ofNullable(getRoutes().get(newKey(vocabularyId, versionTag)));
+  }
+
+  private Map<KeyIdentifier, TermsApiInternal> getRoutes() {
+    long generation = getIndexGeneration();
+    Routes currentRoutes = routes;
+    if (currentRoutes != null && currentRoutes.generation == generation) {
+      return currentRoutes.owners;
+    }
+
+    Map<KeyIdentifier, TermsApiInternal> owners = new HashMap<>();
+    for (TermsApiInternal provider : providers()) {
+      provider.listTerminologies()
+          .forEach(Pointer.class, ptr ->
+              owners.putIfAbsent(newKey(ptr.getUuid(), ptr.getVersionTag()), provider));
+    }
+    // routes built while the content changes are not cached
+    if (getIndexGeneration() == generation) {
+      cacheRoutes(new Routes(generation, owners));
+    }
+    return owners;
+  }
+
+  private synchronized void cacheRoutes(Routes newRoutes) {
+    if (routes == null || routes.generation < newRoutes.generation) {
+      routes = newRoutes;
+    }
+  }
+
+  /**
+   * @return a counter that changes whenever the content of any of the providers changes, including
+   * when the terminologies are cleared through the broker
+   */
+  @Override
+  public long getIndexGeneration() {
+    long generation = clearings.get();
+    for (TermsApiInternal provider : providers()) {
+      if (provider instanceof CompositeTermsServer) {
+        generation += ((CompositeTermsServer) provider).getIndexGeneration();
+      }
+    }
+    return generation;
+  }
+
+  /**
+   * Resolves a call on a specific terminology. If the owner of the terminology is known, the
+   * owner is asked first, and the other providers only if the owner fails. Otherwise, the call is
+   * resolved across all the providers as usual
+   *
+   * @param operation    the name of the operation, in the metrics
+   * @param vocabularyId the UUID of a terminology
+   * @param versionTag   the version of the terminology
+   * @param call         the call to be made on the providers
+   * @param <T>          the type of the Answer
+   * @return the Answer of the owner, if successful, or the first successful Answer otherwise
+   */
+  <T> Answer<T> route(String operation, UUID vocabularyId, String versionTag,
+      Function<TermsApiInternal, Answer<T>> call) {
+    return owner(vocabularyId, versionTag)
+        .map(owner -> {
+          List<TermsApiInternal> routed = new ArrayList<>(providers());
+          routed.remove(owner);
+          routed.add(0, owner);
+          return resolveSerially(operation, routed, call);
+        }).orElseGet(() -> resolve(operation, call));
+  }
+
+  /**
+   * Resolves a call across the providers, according to the configured {@link ResolutionStrategy}.
+   * Either way, the Answer of the provider with the highest precedence that succeeds is returned
+   *
+   * @param operation the name of the operation, in the metrics
+   * @param call      the call to be made on the providers
+   * @param <T>       the type of the Answer
+   * @return the first successful Answer, in order of precedence
+   */
+  <T> Answer<T> resolve(String operation, Function<TermsApiInternal, Answer<T>> call) {
+    if (resolution != ResolutionStrategy.CONCURRENT) {
+      return resolveSerially(operation, providers(), call);
+    }
+
+    ExecutorService executor = getFanOutExecutor();
+    List<TermsApiInternal> providers = providers();
+    List<Future<Answer<T>>> futures = new ArrayList<>();
+    for (TermsApiInternal provider : providers) {
+      futures.add(executor.submit(() -> call.apply(provider)));
+    }
+
+    List<Answer<T>> answers = new ArrayList<>();
+    try {
+      for (int j = 0; j < futures.size(); j++) {
+        Answer<T> answer = futures.get(j).get();
+        if (answer.isSuccess()) {
+          cancel(futures.subList(j + 1, futures.size()));
+          metrics.recordResolution(operation, nameOf(providers.get(j)), j + 1);
+          return answer;
+        }
+        answers.add(answer);
+      }
+    } catch (InterruptedException e) {
+      cancel(futures);
+      Thread.currentThread().interrupt();
+      return Answer.failed(e);
+    } catch (ExecutionException e) {
+      cancel(futures);
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    // no provider succeeded - combine the failures as the serial strategy would
+    metrics.recordResolution(operation, null, providers.size());
+    return firstDo(answers, Function.identity());
+  }
+
+  /**
+   * Asks the given providers, one after the other, until one succeeds
+   *
+   * @param operation the name of the operation, in the metrics
+   * @param providers the providers, in order of precedence
+   * @param call      the call to be made on the providers
+   * @param <T>       the type of the Answer
+   * @return the first successful Answer, in order of precedence
+   */
+  private <T> Answer<T> resolveSerially(String operation, List<TermsApiInternal> providers,
+      Function<TermsApiInternal, Answer<T>> call) {
+    int[] tried = new int[1];
+    TermsApiInternal[] answeredBy = new TermsApiInternal[1];
+    Answer<T> answer = firstDo(providers, provider -> {
+      tried[0]++;
+      Answer<T> ans = call.apply(provider);
+      if (ans.isSuccess()) {
+        answeredBy[0] = provider;
+      }
+      return ans;
+    });
+    metrics.recordResolution(operation,
+        answeredBy[0] != null ? nameOf(answeredBy[0]) : null, tried[0]);
+    return answer;
+  }
+
+  /**
+   * @param provider a provider
+   * @return the name of the provider, in the metrics
+   */
+  static String nameOf(TermsApiInternal provider) {
+    if (provider instanceof CompositeTermsServer) {
+      TYPE type = ((CompositeTermsServer) provider).getType();
+      if (type != null) {
+        return type.name().toLowerCase(Locale.ROOT);
+      }
+    }
+    return provider.getClass().getSimpleName();
+  }
+
+  private void cancel(List<? extends Future<?>> futures) {
+    futures.forEach(f -> f.cancel(true));
+  }
+
+  private synchronized ExecutorService getFanOutExecutor() {
+    if (fanOutExecutor == null) {
+      fanOutExecutor = Executors.newFixedThreadPool(Math.max(1, fanOutThreads), runnable -> {
+        Thread worker = new Thread(runnable, "terms-broker-fan-out");
+        worker.setDaemon(true);
+        return worker;
+      });
+      logger.info("Terms broker resolving calls concurrently, with {} threads", fanOutThreads);
+    }
+    return fanOutExecutor;
+  }
+
+  /**
+   * Resolves a call across the providers, unless the same call is known to have found nothing
+   * recently, in the current index generation. Calls that are NotFound by every provider are
+   * remembered as such - but not if any provider failed otherwise, e.g. because unavailable
+   *
+   * @param missKey  the key of the call, in the cache of misses
+   * @param resolver resolves the call across the providers, given the call to be made on each
+   * @param call     the call to be made on the providers
+   * @param <T>      the type of the Answer
+   * @return the first successful Answer, in order of precedence, or NotFound
+   */
+  <T> Answer<T> resolveUnlessMissing(Object missKey,
+      Function<Function<TermsApiInternal, Answer<T>>, Answer<T>> resolver,
+      Function<TermsApiInternal, Answer<T>> call) {
+    long generation = getIndexGeneration();
+    NegativeCache misses = getNegativeCache();
+    if (misses.contains(missKey, generation)) {
+      return Answer.notFound();
+    }
+    AtomicBoolean allNotFound = new AtomicBoolean(true);
+    Answer<T> answer = resolver.apply(provider -> {
+      Answer<T> ans = call.apply(provider);
+      if (!ans.isNotFound()) {
+        allNotFound.set(false);
+      }
+      return ans;
+    });
+    if (answer.isNotFound() && allNotFound.get()) {
+      misses.add(missKey, generation);
+    }
+    return answer;
+  }
+
+  synchronized NegativeCache getNegativeCache() {
+    if (negativeCache == null) {
+      negativeCache = new NegativeCache(
+          negativeCacheTtlSeconds, TimeUnit.SECONDS, negativeCacheMaxSize);
+    }
+    return negativeCache;
+  }
+
+  @PreDestroy
+  synchronized void shutdown() {
+    if (fanOutExecutor != null) {
+      fanOutExecutor.shutdownNow();
+      fanOutExecutor = null;
+    }
+  }
+
   @Override
   public Answer<Void> clearTerminologies() {
-    return this.fhirAssetDrivenTerms.clearTerminologies();
+    Answer<Void> cleared = this.fhirAssetDrivenTerms.clearTerminologies();
+    // the content may have changed - move to a new generation, so that the routes are rebuilt,
+    // and the misses are forgotten, including any recorded while clearing
+    clearings.incrementAndGet();
+    return cleared;
   }
 
   @Override
   public Answer<List<Pointer>> listTerminologies() {
-    return firstDo(providers(),
-        TermsApiInternal::listTerminologies);
+    return metrics.time(METRICS_NAME, "listTerminologies",
+        () -> resolve("listTerminologies", TermsApiInternal::listTerminologies));
   }
 
   @Override
   public Answer<ConceptDescriptor> getTerm(UUID vocabularyId, String versionTag, String conceptId) {
-    return firstDo(providers(),
-        t -> t.getTerm(vocabularyId, versionTag, conceptId));
+    return metrics.time(METRICS_NAME, "getTerm",
+        () -> resolveUnlessMissing(Arrays.asList(vocabularyId, versionTag, conceptId),
+            call -> route("getTerm", vocabularyId, versionTag, call),
+            t -> t.getTerm(vocabularyId, versionTag, conceptId)));
   }
 
   @Override
   public Answer<List<ConceptDescriptor>> getTerms(
       UUID vocabularyId, String versionTag,
       String labelFilter) {
-    return firstDo(providers(),
-        t -> t.getTerms(vocabularyId, versionTag, labelFilter));
+    return metrics.time(METRICS_NAME, "getTerms",
+        () -> route("getTerms", vocabularyId, versionTag,
+            t -> t.getTerms(vocabularyId, versionTag, labelFilter)));
   }
 
   @Override
   public Answer<ConceptDescriptor> lookupTerm(String conceptId) {
-    return firstDo(providers(),
-        t -> t.lookupTerm(conceptId));
+    return metrics.time(METRICS_NAME, "lookupTerm",
+        () -> resolveUnlessMissing(conceptId,
+            call -> resolve("lookupTerm", call),
+            t -> t.lookupTerm(conceptId)));
+  }
+
+  /**
+   * Resolves a batch of Concepts, partitioning it across the providers: each provider, in order
+   * of precedence (starting from the owner of the terminology, if known), is asked to resolve the
+   * Concepts that have not been resolved yet. Concepts recently found missing are skipped
+   *
+   * @param vocabularyId the UUID of a terminology, or null
+   * @param versionTag   the version of the terminology, or null
+   * @param conceptIds   the ids of the Concepts
+   * @return the descriptors of the Concepts that could be resolved, by concept id
+   */
+  @Override
+  public Answer<Map<String, ConceptDescriptor>> resolveTerms(UUID vocabularyId,
+      String versionTag, List<String> conceptIds) {
+    return metrics.time(METRICS_NAME, "resolveTerms",
+        () -> doResolveTerms(vocabularyId, versionTag, conceptIds));
+  }
+
+  private Answer<Map<String, ConceptDescriptor>> doResolveTerms(UUID vocabularyId,
+      String versionTag, List<String> conceptIds) {
+    long generation = getIndexGeneration();
+    NegativeCache misses = getNegativeCache();
+    List<String> pending = conceptIds.stream()
+        .distinct()
+        .filter(conceptId -> !misses.contains(vocabularyId != null
+            ? Arrays.asList(vocabularyId, versionTag, conceptId)
+            : conceptId, generation))
+        .collect(Collectors.toList());
+
+    List<TermsApiInternal> providers = new ArrayList<>(providers());
+    if (vocabularyId != null) {
+      owner(vocabularyId, versionTag).ifPresent(owner -> {
+        providers.remove(owner);
+        providers.add(0, owner);
+      });
+    }
+
+    Map<String, ConceptDescriptor> found = new HashMap<>();
+    for (TermsApiInternal provider : providers) {
+      if (pending.isEmpty()) {
+        break;
+      }
+      Map<String, ConceptDescriptor> partial = provider instanceof CompositeTermsServer
+          ? ((CompositeTermsServer) provider)
+          .resolveTerms(vocabularyId, versionTag, pending)
+          .orElse(Collections.emptyMap())
+          : CompositeTermsServer.resolveEach(provider, vocabularyId, versionTag, pending);
+      found.putAll(partial);
+      pending = pending.stream()
+          .filter(conceptId -> !partial.containsKey(conceptId))
+          .collect(Collectors.toList());
+    }
+
+    Map<String, ConceptDescriptor> resolved = new LinkedHashMap<>();
+    for (String conceptId : conceptIds) {
+      ConceptDescriptor cd = found.get(conceptId);
+      if (cd != null) {
+        resolved.put(conceptId, cd);
+      }
+    }
+    return Answer.of(resolved);
   }
 
   @Override
@@ -91,4 +490,18 @@ public class TermsBrokerImpl implements TermsApiInternal, CompositeTermsServer {
   public Optional<TermsApiInternal> getFHIRBasedComponent() {
     return Optional.of(fhirAssetDrivenTerms);
   }
+
+  /**
+   * The owner of each terminology, as of a given index generation
+   */
+  private static final class Routes {
+
+    final long generation;
+    final Map<KeyIdentifier, TermsApiInternal> owners;
+
+    Routes(long generation, Map<KeyIdentifier, TermsApiInternal> owners) {
+      this.generation = generation;
+      this.owners = owners;
+    }
+  }
 }
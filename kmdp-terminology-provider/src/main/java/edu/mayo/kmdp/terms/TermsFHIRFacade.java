@@ -19,25 +19,41 @@ import static org.omg.spec.api4kp._20200801.id.SemanticIdentifier.newId;
 import static org.omg.spec.api4kp._20200801.id.SemanticIdentifier.newKey;
 import static org.omg.spec.api4kp._20200801.taxonomy.krlanguage.KnowledgeRepresentationLanguageSeries.FHIR_STU3;
 
-import ca.uhn.fhir.context.FhirContext;
+import edu.mayo.kmdp.terms.impl.CodeSystemStreamReader;
+import edu.mayo.kmdp.terms.impl.ConceptIdNormalizer;
+import edu.mayo.kmdp.terms.impl.ConceptInterner;
+import edu.mayo.kmdp.terms.impl.LabelIndex;
+import edu.mayo.kmdp.terms.impl.LexiconSnapshot;
+import edu.mayo.kmdp.terms.metrics.TermsMetrics;
 import edu.mayo.kmdp.util.DateTimeUtil;
-import edu.mayo.kmdp.util.NameUtils;
 import edu.mayo.kmdp.util.URIUtil;
 import edu.mayo.kmdp.util.Util;
 import edu.mayo.ontology.taxonomies.ws.responsecodes.ResponseCodeSeries;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
-import org.hl7.fhir.dstu3.model.CodeSystem;
-import org.hl7.fhir.dstu3.model.CodeSystem.ConceptDefinitionComponent;
-import org.hl7.fhir.dstu3.model.CodeSystem.ConceptDefinitionDesignationComponent;
+import javax.annotation.PreDestroy;
 import org.omg.spec.api4kp._20200801.AbstractCarrier;
 import org.omg.spec.api4kp._20200801.Answer;
 import org.omg.spec.api4kp._20200801.api.repository.asset.v4.KnowledgeAssetCatalogApi;
@@ -49,11 +65,13 @@ import org.omg.spec.api4kp._20200801.id.Pointer;
 import org.omg.spec.api4kp._20200801.id.ResourceIdentifier;
 import org.omg.spec.api4kp._20200801.id.Term;
 import org.omg.spec.api4kp._20200801.services.KPComponent;
+import org.omg.spec.api4kp._20200801.services.KnowledgeCarrier;
 import org.omg.spec.api4kp._20200801.surrogate.KnowledgeAsset;
 import org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetTypeSeries;
 import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -62,18 +80,73 @@ import org.springframework.stereotype.Component;
 public class TermsFHIRFacade implements TermsApiInternal, CompositeTermsServer {
 
   static Logger logger = LoggerFactory.getLogger(TermsFHIRFacade.class);
-  static FhirContext fhirContext = FhirContext.forDstu3();
+
+  /**
+   * The name of this provider, in the metrics
+   */
+  public static final String METRICS_NAME = "fhir";
+
+  static final int DEFAULT_REINDEX_PARALLELISM = 4;
 
   @Value("${edu.mayo.kmdp.kasrs.repository.defaultRepoUrl:http://localhost:8080/kar}")
   protected String kasrURL;
 
+  /**
+   * The maximum number of Lexicon assets that are fetched and parsed concurrently on reindex
+   */
+  @Value("${edu.mayo.kmdp.terms.fhir.reindexParallelism:4}")
+  protected int reindexParallelism = DEFAULT_REINDEX_PARALLELISM;
+
+  /**
+   * If true, clearing the terminologies will only fetch the Lexicon assets that are new or
+   * changed since the last reindex, and evict the ones that have been removed
+   */
+  @Value("${edu.mayo.kmdp.terms.fhir.incrementalReindex:false}")
+  protected boolean incrementalReindex;
+
+  /**
+   * Optional location of a local snapshot of the index. If present, the snapshot is restored on
+   * startup, then revalidated against the KARS in the background. The snapshot is updated after
+   * every successful reindex, and is served while the KARS is not reachable
+   */
+  @Value("${edu.mayo.kmdp.terms.fhir.snapshotFile:}")
+  protected String snapshotFile;
+
   protected KnowledgeAssetCatalogApi cat;
   protected KnowledgeAssetRepositoryApi repo;
-  protected boolean online;
-
-  private final Map<KeyIdentifier, Pointer> schemePointers = new HashMap<>();
-  private final Map<KeyIdentifier, CodeSystem> schemeIndex = new HashMap<>();
-  private final Map<UUID, ConceptDescriptor> conceptIndex = new HashMap<>();
+  protected volatile boolean online;
+
+  /**
+   * The current (immutable) index. Reindexing builds a new index, which is then published by
+   * replacing this reference, so that readers never block, nor see a partially built index
+   */
+  private volatile IndexSnapshot index = IndexSnapshot.EMPTY;
+
+  /**
+   * When the index was last rebuilt from the KARS (or, if restored, saved to the snapshot)
+   */
+  private volatile Instant lastIndexed;
+
+  /**
+   * Incremented whenever a new index is published, or this facade goes online or offline
+   */
+  private final AtomicLong indexGeneration = new AtomicLong();
+
+  /**
+   * The workers that fetch and parse the Lexicon assets on reindex, created on first use.
+   * Only accessed while holding the reindex lock
+   */
+  private ExecutorService reindexExecutor;
+
+  /**
+   * Maps Concept ids to the UUIDs used in the indexes
+   */
+  private final ConceptIdNormalizer normalizer = ConceptIdNormalizer.shared();
+
+  /**
+   * Records the calls made on this provider
+   */
+  protected TermsMetrics metrics = TermsMetrics.noop();
 
   public TermsFHIRFacade() {
     // nothing to do - @PostConstruct will initialize the data structures
@@ -87,6 +160,11 @@ public class TermsFHIRFacade implements TermsApiInternal, CompositeTermsServer {
     reindex();
   }
 
+  @Autowired(required = false)
+  public void setMetrics(TermsMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   @PostConstruct
   void init() {
     if (cat == null && repo == null) {
@@ -94,15 +172,32 @@ public class TermsFHIRFacade implements TermsApiInternal, CompositeTermsServer {
       repo = KnowledgeAssetRepositoryApi.newInstance(kasrURL);
     }
 
-    reindex();
+    if (restoreSnapshot()) {
+      ExecutorService revalidator = Executors.newSingleThreadExecutor(
+          daemonThreads("terms-fhir-revalidate"));
+      revalidator.execute(() -> reindex(true));
+      revalidator.shutdown();
+    } else {
+      reindex();
+    }
+  }
+
+  @PreDestroy
+  synchronized void shutdown() {
+    if (reindexExecutor != null) {
+      reindexExecutor.shutdownNow();
+      reindexExecutor = null;
+    }
   }
 
   @Override
   public Answer<List<Pointer>> listTerminologies() {
-    if (!online) {
-      return Answer.unsupported();
-    }
-    return Answer.of(new ArrayList<>(schemePointers.values()));
+    return metrics.time(METRICS_NAME, "listTerminologies", () -> {
+      if (!online) {
+        return Answer.unsupported();
+      }
+      return Answer.of(new ArrayList<>(index.schemePointers.values()));
+    });
   }
 
   @Override
@@ -110,49 +205,114 @@ public class TermsFHIRFacade implements TermsApiInternal, CompositeTermsServer {
     if (! online) {
       return Answer.unsupported();
     }
-    return reindex();
+    return reindex(incrementalReindex);
   }
 
   @Override
   public Answer<ConceptDescriptor> getTerm(UUID vocabularyId, String versionTag, String conceptId) {
-    if (!online) {
-      return Answer.unsupported();
-    }
-    KeyIdentifier key = newId(vocabularyId, versionTag).asKey();
-    return schemeIndex.containsKey(key)
-        ? lookupTerm(conceptId)
-        : Answer.notFound();
+    return metrics.time(METRICS_NAME, "getTerm", () -> {
+      if (!online) {
+        return Answer.unsupported();
+      }
+      IndexSnapshot snapshot = index;
+      KeyIdentifier key = newId(vocabularyId, versionTag).asKey();
+      return snapshot.schemeLabelIndex.containsKey(key)
+          ? lookupTerm(snapshot, conceptId)
+          : Answer.notFound();
+    });
   }
 
   @Override
   public Answer<List<ConceptDescriptor>> getTerms(
       UUID vocabularyId, String versionTag,
       String labelFilter) {
-    if (!online) {
-      return Answer.unsupported();
-    }
-    KeyIdentifier key = newKey(vocabularyId, versionTag);
-    return Answer.of(schemeIndex.get(key))
-        .map(cs -> cs.getConcept().stream()
-            .map(cd -> codeToUUID(cd.getCode()))
-            .map(conceptIndex::get)
-            .collect(Collectors.toList()));
+    return metrics.time(METRICS_NAME, "getTerms", () -> {
+      if (!online) {
+        return Answer.unsupported();
+      }
+      KeyIdentifier key = newKey(vocabularyId, versionTag);
+      return Answer.ofNullable(index.schemeLabelIndex.get(key))
+          .map(labels -> labels.filter(labelFilter));
+    });
   }
 
   @Override
   public Answer<ConceptDescriptor> lookupTerm(String conceptId) {
+    return metrics.time(METRICS_NAME, "lookupTerm", () -> {
+      if (!online) {
+        return Answer.unsupported();
+      }
+      return lookupTerm(index, conceptId);
+    });
+  }
+
+  private Answer<ConceptDescriptor> lookupTerm(IndexSnapshot snapshot, String conceptId) {
+    return Answer.ofNullable(snapshot.conceptIndex.get(normalizer.toConceptUUID(conceptId)));
+  }
+
+
+  /**
+   * Resolves a batch of Concepts against the same snapshot of the index
+   *
+   * @param vocabularyId the UUID of a terminology, or null
+   * @param versionTag   the version of the terminology, or null
+   * @param conceptIds   the ids of the Concepts
+   * @return the descriptors of the Concepts that could be resolved, by concept id
+   */
+  @Override
+  public Answer<Map<String, ConceptDescriptor>> resolveTerms(UUID vocabularyId,
+      String versionTag, List<String> conceptIds) {
+    return metrics.time(METRICS_NAME, "resolveTerms",
+        () -> doResolveTerms(vocabularyId, versionTag, conceptIds));
+  }
+
+  private Answer<Map<String, ConceptDescriptor>> doResolveTerms(UUID vocabularyId,
+      String versionTag, List<String> conceptIds) {
     if (!online) {
       return Answer.unsupported();
     }
-    UUID uuid = Util.ensureUUID(conceptId)
-        .or(() -> Util.ensureUUID(NameUtils.getTrailingPart(conceptId)))
-        .orElseGet(() -> Util.uuid(conceptId));
-    return Answer.ofNullable(conceptIndex.get(uuid));
+    IndexSnapshot snapshot = index;
+    if (vocabularyId != null
+        && !snapshot.schemeLabelIndex.containsKey(newId(vocabularyId, versionTag).asKey())) {
+      return Answer.notFound();
+    }
+    Map<String, ConceptDescriptor> resolved = new LinkedHashMap<>();
+    for (String conceptId : conceptIds) {
+      ConceptDescriptor cd = snapshot.conceptIndex.get(normalizer.toConceptUUID(conceptId));
+      if (cd != null) {
+        resolved.put(conceptId, cd);
+      }
+    }
+    return Answer.of(resolved);
   }
 
   Answer<Void> reindex() {
-    online = cat.getKnowledgeAssetCatalog().isSuccess();
-    if (!online) {
+    return reindex(false);
+  }
+
+  /**
+   * Rebuilds the index from the Lexicon assets in the KARS.
+   * <p>
+   * In incremental mode, the assets are compared (by id and version) with the ones already
+   * indexed, so that only new or changed assets are fetched, while removed assets are evicted.
+   * Assets that could only be partially fetched are retained, but fetched again on every
+   * incremental reindex, until complete.
+   * <p>
+   * Reindexes are serialized, so that concurrent requests (e.g. a background revalidation and a
+   * client clearing the terminologies) cannot publish their indexes out of order
+   *
+   * @param incremental if true, reuses the assets that are already indexed
+   * @return success, if the Lexicon assets could be listed and the index has been rebuilt
+   */
+  synchronized Answer<Void> reindex(boolean incremental) {
+    boolean reachable = cat.getKnowledgeAssetCatalog().isSuccess();
+    boolean wasOnline = online;
+    // content backed by a local snapshot can still be served while the KARS is not reachable
+    online = reachable || (!isEmpty(snapshotFile) && !index.assets.isEmpty());
+    if (online != wasOnline) {
+      indexGeneration.incrementAndGet();
+    }
+    if (!reachable) {
       logger.error(
           "TermsFHIRFacade reindex was not successful.  Unable to access KAC.  Content was not updated.");
       return Answer.of(ResponseCodeSeries.NotFound)
@@ -160,121 +320,292 @@ public class TermsFHIRFacade implements TermsApiInternal, CompositeTermsServer {
               "TermsFHIRFacade reindex was not successful.  Unable to access KAC.  Content was not updated.");
     }
 
-    Index collector = new Index();
+    List<Pointer> assetPointers = new ArrayList<>();
     Answer<Void> ans = cat
         .listKnowledgeAssets(KnowledgeAssetTypeSeries.Lexicon.getTag(), null, null, 0, -1)
-        .forEach(Pointer.class, ptr -> indexCodeSystemAsset(ptr, collector));
+        .forEach(Pointer.class, assetPointers::add);
     if (!ans.isSuccess()) {
       logger.error("TermsFHIRFacade reindex was not successful. Original content unchanged.");
-      ans.withExplanation(
+      return ans.withExplanation(
           "TermsFHIRFacade reindex was not successful. Original content unchanged.");
     }
+
+    Map<KeyIdentifier, CodeSystemAsset> indexed = incremental
+        ? index.assets
+        : Collections.emptyMap();
+    Map<KeyIdentifier, CodeSystemAsset> fetched = fetchCodeSystemAssets(
+        assetPointers.stream()
+            .filter(ptr -> !isComplete(indexed.get(ptr.asKey())))
+            .collect(Collectors.toList()))
+        .stream()
+        .collect(Collectors.toMap(asset -> asset.assetKey, asset -> asset, (a1, a2) -> a1));
+
+    Index collector = new Index();
+    for (Pointer ptr : assetPointers) {
+      KeyIdentifier assetKey = ptr.asKey();
+      CodeSystemAsset asset = fetched.containsKey(assetKey)
+          ? fetched.get(assetKey)
+          : indexed.get(assetKey);
+      if (asset != null) {
+        indexCodeSystemAsset(asset, collector);
+      }
+    }
+    if (incremental) {
+      logger.info("TermsFHIRFacade incremental reindex : "
+              + "{} assets fetched, {} retained, {} evicted",
+          fetched.size(),
+          collector.tempAssets.size() - fetched.size(),
+          indexed.keySet().stream().filter(k -> !collector.tempAssets.containsKey(k)).count());
+    }
     transferContentToPrimary(collector);
     return ans;
   }
 
-  private void indexCodeSystemAsset(Pointer karsPointer, Index collector) {
-    Answer<KnowledgeAsset> ans =
-        cat.getKnowledgeAssetVersion(karsPointer.getUuid(), karsPointer.getVersionTag());
-    ans.ifPresent(asset -> {
-      if (asset.getSecondaryId().isEmpty()) {
-        logger.warn("Missing secondary ID for asset {} - {}",
-            asset.getAssetId().getUuid(), asset.getName());
-        logger.trace("Asset primary ID should be SemVer-based : {}, "
-                + " while missing secondary ID should be date-based",
-            asset.getAssetId().getVersionTag());
-      }
-      Optional<CodeSystem> artf = fetchCodeSystemArtifact(asset);
-      // secondary ID : Taxonomies use date-based versioning - future reconsider?
-      Pointer taxonomyPtr = asset.getSecondaryId().isEmpty()
-          ? asset.getAssetId().toPointer()
-          : asset.getSecondaryId().get(0).toPointer();
-      KeyIdentifier key = taxonomyPtr.asKey();
-      collector.tempSchemePointers.put(key, taxonomyPtr);
-      artf.ifPresent(cs -> indexCodeSystem(key, cs, collector));
-    });
+  private static boolean isComplete(CodeSystemAsset asset) {
+    return asset != null && asset.complete;
   }
 
-  private void indexCodeSystem(KeyIdentifier key, CodeSystem cs, Index collector) {
-    collector.tempSchemeIndex.put(key, cs);
-    cs.getConcept().stream()
-        .map(cd -> toConceptDescriptor(cd, cs))
-        .forEach(cd -> collector.tempConceptIndex.put(cd.getUuid(), cd));
+  /**
+   * Fetches, parses and converts the given Lexicon assets, using up to {@link
+   * #reindexParallelism} concurrent workers
+   *
+   * @param assetPointers the Lexicon assets to be indexed
+   * @return the (successfully) fetched assets, in the same order as the pointers
+   */
+  private List<CodeSystemAsset> fetchCodeSystemAssets(List<Pointer> assetPointers) {
+    int parallelism = Math.min(reindexParallelism, assetPointers.size());
+    if (parallelism <= 1) {
+      return assetPointers.stream()
+          .map(this::fetchCodeSystemAsset)
+          .flatMap(Optional::stream)
+          .collect(Collectors.toList());
+    }
+
+    ExecutorService executor = getReindexExecutor();
+    List<CompletableFuture<Optional<CodeSystemAsset>>> fetches = assetPointers.stream()
+        .map(ptr -> CompletableFuture.supplyAsync(() -> fetchCodeSystemAsset(ptr), executor))
+        .collect(Collectors.toList());
+    return fetches.stream()
+        .map(CompletableFuture::join)
+        .flatMap(Optional::stream)
+        .collect(Collectors.toList());
   }
 
-  private Optional<CodeSystem> fetchCodeSystemArtifact(KnowledgeAsset asset) {
-    if (asset.getCarriers().isEmpty()) {
+  /**
+   * @return the (bounded) pool of reindex workers, shared by all the reindexes of this facade
+   */
+  private ExecutorService getReindexExecutor() {
+    if (reindexExecutor == null) {
+      reindexExecutor = Executors.newFixedThreadPool(reindexParallelism,
+          daemonThreads("terms-fhir-reindex"));
+    }
+    return reindexExecutor;
+  }
+
+  /**
+   * @return the pool of reindex workers, if one has been created (and not yet shut down)
+   */
+  synchronized Optional<ExecutorService> getReindexWorkers() {
+    return Optional.ofNullable(reindexExecutor);
+  }
+
+  private Optional<CodeSystemAsset> fetchCodeSystemAsset(Pointer karsPointer) {
+    try {
+      Answer<KnowledgeAsset> ans =
+          cat.getKnowledgeAssetVersion(karsPointer.getUuid(), karsPointer.getVersionTag());
+      return ans.getOptionalValue()
+          .map(asset -> fetchCodeSystemAsset(karsPointer, asset));
+    } catch (RuntimeException e) {
+      logger.error("Unable to index Lexicon asset {} : {}",
+          karsPointer.getUuid(), e.getMessage(), e);
       return Optional.empty();
+    }
+  }
+
+  private CodeSystemAsset fetchCodeSystemAsset(Pointer karsPointer, KnowledgeAsset asset) {
+    if (asset.getSecondaryId().isEmpty()) {
+      logger.warn("Missing secondary ID for asset {} - {}",
+          asset.getAssetId().getUuid(), asset.getName());
+      logger.trace("Asset primary ID should be SemVer-based : {}, "
+              + " while missing secondary ID should be date-based",
+          asset.getAssetId().getVersionTag());
+    }
+    List<Answer<List<ConceptDescriptor>>> artifacts = fetchCodeSystemArtifacts(asset);
+    boolean complete = artifacts.stream().allMatch(Answer::isSuccess);
+    if (!complete) {
+      logger.warn("Unable to fetch all the CodeSystems of Lexicon asset {} - {}",
+          asset.getAssetId().getUuid(), asset.getName());
+    }
+    List<ConceptDescriptor> concepts = artifacts.stream()
+        .flatMap(Answer::trimStream)
+        .reduce((cs1, cs2) -> {
+          cs1.addAll(cs2);
+          return cs1;
+        }).orElse(null);
+    // secondary ID : Taxonomies use date-based versioning - future reconsider?
+    Pointer taxonomyPtr = asset.getSecondaryId().isEmpty()
+        ? asset.getAssetId().toPointer()
+        : asset.getSecondaryId().get(0).toPointer();
+    return new CodeSystemAsset(karsPointer, taxonomyPtr, concepts, complete);
+  }
+
+  private void indexCodeSystemAsset(CodeSystemAsset asset, Index collector) {
+    KeyIdentifier key = asset.schemePointer.asKey();
+    collector.tempAssets.put(asset.assetKey, asset);
+    collector.tempSchemePointers.put(key, asset.schemePointer);
+    if (asset.concepts != null) {
+      asset.concepts.forEach(cd -> collector.tempConceptIndex.put(cd.getUuid(), cd));
+      collector.tempSchemeLabelIndex.put(key, asset.labelIndex);
+    }
+  }
+
+  /**
+   * Fetches the CodeSystem(s) carried by a Lexicon asset, and reads the concepts thereof
+   *
+   * @param asset the Lexicon asset
+   * @return the descriptors of the concepts in each CodeSystem, or a failure for the CodeSystems
+   * that could not be fetched
+   */
+  private List<Answer<List<ConceptDescriptor>>> fetchCodeSystemArtifacts(KnowledgeAsset asset) {
+    if (asset.getCarriers().isEmpty()) {
+      return Collections.emptyList();
     } else if (asset.getCarriers().size() == 1) {
-      return repo.getKnowledgeAssetVersionCanonicalCarrier(
+      return Collections.singletonList(repo.getKnowledgeAssetVersionCanonicalCarrier(
           asset.getAssetId().getUuid(),
           asset.getAssetId().getVersionTag(),
           codedRep(FHIR_STU3))
-          .flatOpt(AbstractCarrier::asBinary)
-          .map(ByteArrayInputStream::new)
-          .map(bais -> fhirContext.newJsonParser().parseResource(CodeSystem.class, bais))
-          .getOptionalValue();
+          .flatOpt(this::readConcepts));
     } else {
       return asset.getCarriers().stream()
           .map(carrier -> fetchCodeSystemArtifact(asset.getAssetId(), carrier.getArtifactId()))
-          .flatMap(Answer::trimStream)
-          .reduce(this::mergeCodeSystems);
+          .collect(Collectors.toList());
     }
   }
 
-  private CodeSystem mergeCodeSystems(CodeSystem cs, CodeSystem cs2) {
-    cs.getConcept().addAll(cs2.getConcept());
-    return cs;
-  }
-
-  private Answer<CodeSystem> fetchCodeSystemArtifact(
+  private Answer<List<ConceptDescriptor>> fetchCodeSystemArtifact(
       ResourceIdentifier assetId, ResourceIdentifier artifactId) {
     return repo.getKnowledgeAssetCarrierVersion(
         assetId.getUuid(), assetId.getVersionTag(),
         artifactId.getUuid(), artifactId.getVersionTag(),
         codedRep(FHIR_STU3))
-        .flatOpt(AbstractCarrier::asBinary)
-        .map(ByteArrayInputStream::new)
-        .map(bais -> fhirContext.newJsonParser().parseResource(CodeSystem.class, bais));
+        .flatOpt(this::readConcepts);
+  }
+
+  /**
+   * Streams the concepts out of the CodeSystem carried by a KnowledgeCarrier.
+   * <p>
+   * The expression is read as it is carried (stream, bytes or string), so that neither the HAPI
+   * object graph nor a binary copy of a textual expression are materialized. Other
+   * representations fall back to the binary encoding of the carrier
+   *
+   * @param carrier the carrier of the (JSON) serialized CodeSystem
+   * @return the descriptors of the (top level) concepts in the CodeSystem, if the expression
+   * could be read
+   */
+  private Optional<List<ConceptDescriptor>> readConcepts(KnowledgeCarrier carrier) {
+    CodeSystemStreamReader reader = new CodeSystemStreamReader(this::toConceptDescriptor);
+    Object expression = carrier.getExpression();
+    try {
+      if (expression instanceof InputStream) {
+        return Optional.of(reader.read((InputStream) expression));
+      } else if (expression instanceof byte[]) {
+        return Optional.of(reader.read(new ByteArrayInputStream((byte[]) expression)));
+      } else if (expression instanceof String) {
+        return Optional.of(reader.read(new StringReader((String) expression)));
+      }
+      Optional<byte[]> binary = Optional.of(carrier).flatMap(AbstractCarrier::asBinary);
+      if (binary.isPresent()) {
+        return Optional.of(reader.read(new ByteArrayInputStream(binary.get())));
+      }
+      return Optional.empty();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
-  private synchronized void transferContentToPrimary(Index collector) {
-    schemePointers.clear();
-    schemePointers.putAll(collector.tempSchemePointers);
+  private void transferContentToPrimary(Index collector) {
+    index = new IndexSnapshot(collector);
+    lastIndexed = Instant.now();
+    indexGeneration.incrementAndGet();
+    saveSnapshot(index);
+  }
 
-    schemeIndex.clear();
-    schemeIndex.putAll(collector.tempSchemeIndex);
+  /**
+   * Restores the index from the local snapshot, if configured and available
+   *
+   * @return true if the index has been restored
+   */
+  private boolean restoreSnapshot() {
+    if (isEmpty(snapshotFile)) {
+      return false;
+    }
+    try {
+      List<LexiconSnapshot.Entry> entries = LexiconSnapshot.read(Paths.get(snapshotFile));
+      if (entries.isEmpty()) {
+        return false;
+      }
+      Index collector = new Index();
+      entries.stream()
+          .map(CodeSystemAsset::new)
+          .forEach(asset -> indexCodeSystemAsset(asset, collector));
+      Instant savedOn = Files.getLastModifiedTime(Paths.get(snapshotFile)).toInstant();
+      index = new IndexSnapshot(collector);
+      lastIndexed = savedOn;
+      online = true;
+      indexGeneration.incrementAndGet();
+      logger.info("TermsFHIRFacade restored {} Lexicon assets from snapshot {}",
+          entries.size(), snapshotFile);
+      return true;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Unable to restore the terminology snapshot {} : {}",
+          snapshotFile, e.getMessage());
+      return false;
+    }
+  }
 
-    conceptIndex.clear();
-    conceptIndex.putAll(collector.tempConceptIndex);
+  private synchronized void saveSnapshot(IndexSnapshot snapshot) {
+    if (isEmpty(snapshotFile)) {
+      return;
+    }
+    try {
+      // incomplete assets are not saved, so that they will be fetched again once restored
+      LexiconSnapshot.write(Paths.get(snapshotFile), snapshot.assets.values().stream()
+          .filter(asset -> asset.complete)
+          .map(CodeSystemAsset::toSnapshotEntry)
+          .collect(Collectors.toList()));
+    } catch (IOException e) {
+      logger.warn("Unable to save the terminology snapshot {} : {}",
+          snapshotFile, e.getMessage());
+    }
+  }
 
-    collector.clear();
+  private static ThreadFactory daemonThreads(String name) {
+    return runnable -> {
+      Thread worker = new Thread(runnable, name);
+      worker.setDaemon(true);
+      return worker;
+    };
   }
 
-  private ConceptDescriptor toConceptDescriptor(ConceptDefinitionComponent cd, CodeSystem cs) {
+  private ConceptDescriptor toConceptDescriptor(String url, String version,
+      String code, String display, String definition, Map<String, String> designations) {
+    UUID uuid = codeToUUID(code);
     ConceptDescriptor descr = new ConceptDescriptor();
-    descr.withLabels(mapDesignations(cd))
-        .withTag(cd.getCode())
-        .withResourceId(conceptId(cs.getUrl(), codeToUUID(cd.getCode()).toString()))
-        .withUuid(codeToUUID(cd.getCode()))
-        .withName(cd.getDisplay())
-        .withVersionTag(cs.getVersion())
-        .withVersionId(conceptId(cs.getUrl(), cs.getVersion(), codeToUUID(cd.getCode()).toString()))
-        .withNamespaceUri(URIUtil.normalizeURI(URI.create(cs.getUrl())))
-        .withEstablishedOn(DateTimeUtil.parseDate(cs.getVersion(), "yyyyMMdd"))
-        .withReferentId(isEmpty(cd.getDefinition()) ? null : URI.create(cd.getDefinition()));
+    descr.withLabels(designations)
+        .withTag(code)
+        .withResourceId(conceptId(url, uuid.toString()))
+        .withUuid(uuid)
+        .withName(display)
+        .withVersionTag(version)
+        .withVersionId(conceptId(url, version, uuid.toString()))
+        .withNamespaceUri(URIUtil.normalizeURI(URI.create(url)))
+        .withEstablishedOn(DateTimeUtil.parseDate(version, "yyyyMMdd"))
+        .withReferentId(isEmpty(definition) ? null : URI.create(definition));
     descr.setAncestors(new Term[0]);
     descr.setClosure(new Term[0]);
     return descr;
   }
 
-  private Map<String,String> mapDesignations(ConceptDefinitionComponent cd) {
-    return cd.getDesignation().stream()
-        .collect(Collectors.toMap(
-            dx -> dx.getUse().getCode(),
-            ConceptDefinitionDesignationComponent::getValue));
-  }
-
   private UUID codeToUUID(String code) {
     return Util.ensureUUID(code).orElseGet(() -> Util.uuid(code));
   }
@@ -318,16 +649,92 @@ public class TermsFHIRFacade implements TermsApiInternal, CompositeTermsServer {
     return Optional.of(this);
   }
 
+  @Override
+  public Optional<Instant> getLastIndexed() {
+    return Optional.ofNullable(lastIndexed);
+  }
+
+  @Override
+  public long getIndexGeneration() {
+    return indexGeneration.get();
+  }
+
+  /**
+   * @return the number of Concepts in the current index
+   */
+  @Override
+  public long getIndexSize() {
+    return index.conceptIndex.size();
+  }
+
+
+  /**
+   * A Lexicon asset, fetched from the KARS (or restored from a snapshot), with the descriptors of
+   * the Concepts in its CodeSystem, if any.
+   * An asset is incomplete if any of its CodeSystems could not be fetched
+   */
+  private static final class CodeSystemAsset {
+    final UUID assetUuid;
+    final String assetVersionTag;
+    final KeyIdentifier assetKey;
+    final Pointer schemePointer;
+    final List<ConceptDescriptor> concepts;
+    final LabelIndex labelIndex;
+    final boolean complete;
+
+    CodeSystemAsset(Pointer karsPointer, Pointer schemePointer,
+        List<ConceptDescriptor> concepts, boolean complete) {
+      this(karsPointer.getUuid(), karsPointer.getVersionTag(), schemePointer, concepts, complete);
+    }
+
+    CodeSystemAsset(LexiconSnapshot.Entry entry) {
+      this(entry.getAssetUuid(), entry.getAssetVersionTag(), entry.getSchemePointer(),
+          entry.getConcepts(), true);
+    }
+
+    private CodeSystemAsset(UUID assetUuid, String assetVersionTag, Pointer schemePointer,
+        List<ConceptDescriptor> concepts, boolean complete) {
+      this.assetUuid = assetUuid;
+      this.assetVersionTag = assetVersionTag;
+      this.assetKey = newKey(assetUuid, assetVersionTag);
+      this.schemePointer = schemePointer;
+      this.concepts = concepts != null
+          ? Collections.unmodifiableList(ConceptInterner.shared().internAll(concepts))
+          : null;
+      this.labelIndex = this.concepts != null ? LabelIndex.of(this.concepts) : null;
+      this.complete = complete;
+    }
+
+    LexiconSnapshot.Entry toSnapshotEntry() {
+      return new LexiconSnapshot.Entry(assetUuid, assetVersionTag, schemePointer, concepts);
+    }
+  }
 
   private static class Index {
+    final Map<KeyIdentifier, CodeSystemAsset> tempAssets = new LinkedHashMap<>();
     final Map<KeyIdentifier, Pointer> tempSchemePointers = new HashMap<>();
-    final Map<KeyIdentifier, CodeSystem> tempSchemeIndex = new HashMap<>();
     final Map<UUID, ConceptDescriptor> tempConceptIndex = new HashMap<>();
+    final Map<KeyIdentifier, LabelIndex> tempSchemeLabelIndex = new HashMap<>();
+  }
+
+  /**
+   * An immutable view of the content of an {@link Index}, which can be shared with readers.
+   * The Index is owned by the snapshot, and must not be modified once the snapshot is created
+   */
+  private static final class IndexSnapshot {
+
+    static final IndexSnapshot EMPTY = new IndexSnapshot(new Index());
+
+    final Map<KeyIdentifier, CodeSystemAsset> assets;
+    final Map<KeyIdentifier, Pointer> schemePointers;
+    final Map<UUID, ConceptDescriptor> conceptIndex;
+    final Map<KeyIdentifier, LabelIndex> schemeLabelIndex;
 
-    public void clear() {
-      tempConceptIndex.clear();
-      tempSchemeIndex.clear();
-      tempConceptIndex.clear();
+    IndexSnapshot(Index collector) {
+      assets = Collections.unmodifiableMap(collector.tempAssets);
+      schemePointers = Collections.unmodifiableMap(collector.tempSchemePointers);
+      conceptIndex = Collections.unmodifiableMap(collector.tempConceptIndex);
+      schemeLabelIndex = Collections.unmodifiableMap(collector.tempSchemeLabelIndex);
     }
   }
 }
@@ -18,24 +18,38 @@ import static edu.mayo.kmdp.util.Util.isEmpty;
 import static edu.mayo.kmdp.util.Util.uuid;
 import static org.omg.spec.api4kp._20200801.id.SemanticIdentifier.newKey;
 
-import edu.mayo.kmdp.comparator.Contrastor.Comparison;
+import edu.mayo.kmdp.terms.impl.AncestorClosure;
+import edu.mayo.kmdp.terms.impl.BinaryIndexFormat;
+import edu.mayo.kmdp.terms.impl.BinaryTerminologyIndex;
+import edu.mayo.kmdp.terms.impl.ConceptIdNormalizer;
+import edu.mayo.kmdp.terms.impl.ConceptIndex;
+import edu.mayo.kmdp.terms.impl.ConceptInterner;
+import edu.mayo.kmdp.terms.impl.LabelIndex;
 import edu.mayo.kmdp.terms.impl.model.TerminologyScheme;
+import edu.mayo.kmdp.terms.metrics.TermsMetrics;
 import edu.mayo.kmdp.util.NameUtils;
 import edu.mayo.kmdp.util.Util;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.TemporalQueries;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import org.omg.spec.api4kp._20200801.Answer;
 import org.omg.spec.api4kp._20200801.api.terminology.v4.server.TermsApiInternal;
@@ -43,7 +57,6 @@ import org.omg.spec.api4kp._20200801.id.KeyIdentifier;
 import org.omg.spec.api4kp._20200801.id.Pointer;
 import org.omg.spec.api4kp._20200801.id.SemanticIdentifier;
 import org.omg.spec.api4kp._20200801.id.Term;
-import org.omg.spec.api4kp._20200801.id.VersionTagContrastor;
 import org.omg.spec.api4kp._20200801.services.KPComponent;
 import org.omg.spec.api4kp._20200801.services.KnowledgeCarrier;
 import org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetTypeSeries;
@@ -51,6 +64,7 @@ import org.omg.spec.api4kp._20200801.terms.ConceptTerm;
 import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -63,22 +77,99 @@ import org.springframework.stereotype.Component;
 @KPComponent(implementation = "enum")
 public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
 
+  /**
+   * The name of this provider, in the metrics
+   */
+  public static final String METRICS_NAME = "enum";
+
   @Value("${terms.terminologyFile:terminologies.json}")
   protected String terminologyFile;
 
+  /**
+   * The binary index of the terms, generated by the terminology indexer alongside the
+   * terminologyFile. If not set, the index is looked up next to the terminologyFile (i.e.
+   * terminologies.bin). When available, the terms are decoded from the index rather than being
+   * converted from the terminology classes, which are then not initialized
+   */
+  @Value("${terms.binaryIndexFile:}")
+  protected String binaryIndexFile;
+
+  /**
+   * If false, the binary index is ignored, and the terms are always converted from the terminology
+   * classes
+   */
+  @Value("${terms.useBinaryIndex:true}")
+  protected boolean useBinaryIndex = true;
+
+  /**
+   * If true, the terms of each scheme are materialized on first access, rather than at startup
+   */
+  @Value("${terms.lazy:false}")
+  protected boolean lazy;
+
+  /**
+   * In lazy mode, a comma-separated list of schemes (by name, tag or UUID) to be materialized at
+   * startup nonetheless
+   */
+  @Value("${terms.warmUp:}")
+  protected String warmUp;
+
   static Logger logger = LoggerFactory.getLogger(TermsProvider.class);
 
+  /**
+   * The binary index of the terms, if configured and available
+   */
+  private BinaryTerminologyIndex binaryIndex;
+
   /**
    * A map using two keys to identify the TerminologyScheme value
    */
   private Map<KeyIdentifier, TerminologyScheme> multiKeyMap;
 
+  /**
+   * A secondary index that maps each Concept (by UUID, tag or resourceId) to the descriptor found
+   * in the latest version of the TerminologySchemes that include that Concept
+   */
+  private volatile Map<UUID, ConceptDescriptor> latestConceptIndex;
+
+  /**
+   * In lazy mode, maps each Concept (by UUID, tag or resourceId) to the latest version of the
+   * TerminologySchemes that include that Concept. Unlike the index of the latest descriptors, it
+   * can be built without materializing the schemes
+   */
+  private volatile Map<UUID, TerminologyScheme> latestSchemeIndex;
+
+  /**
+   * Maps Concept ids to the UUIDs used in the indexes
+   */
+  private final ConceptIdNormalizer normalizer = ConceptIdNormalizer.shared();
+
+  /**
+   * Records the calls made on this provider
+   */
+  protected TermsMetrics metrics = TermsMetrics.noop();
+
+  @Autowired(required = false)
+  public void setMetrics(TermsMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   @PostConstruct
-  private void populateMap() {
+  void populateMap() {
+    binaryIndex = loadBinaryIndex();
     multiKeyMap = readTerminologyJsonFileIntoTerminologyModels();
+    if (lazy) {
+      warmUp();
+    } else {
+      getLatestConceptIndex();
+    }
   }
 
-  private VersionTagContrastor contrastor = new VersionTagContrastor(this::toInstant);
+  /**
+   * Parser for the date-based component of the (scheme) version tags
+   */
+  private static final DateTimeFormatter VERSION_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd");
 
   public TermsProvider() {
     super();
@@ -100,9 +191,21 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
    * @return
    */
   public static TermsProvider newTermsProvider(String terminologyFile) {
+    return newTermsProvider(terminologyFile, null);
+  }
+
+  /**
+   * Static constructor, used for testing
+   *
+   * @param terminologyFile
+   * @param binaryIndexFile
+   * @return
+   */
+  public static TermsProvider newTermsProvider(String terminologyFile, String binaryIndexFile) {
     TermsProvider tp = new TermsProvider();
     tp.terminologyFile = terminologyFile;
-    tp.multiKeyMap = tp.readTerminologyJsonFileIntoTerminologyModels();
+    tp.binaryIndexFile = binaryIndexFile;
+    tp.populateMap();
     return tp;
   }
 
@@ -113,6 +216,10 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
    */
   @Override
   public Answer<List<Pointer>> listTerminologies() {
+    return metrics.time(METRICS_NAME, "listTerminologies", this::doListTerminologies);
+  }
+
+  private Answer<List<Pointer>> doListTerminologies() {
     ArrayList<Pointer> pointers = new ArrayList<>();
 
     Collection<TerminologyScheme> schemes = multiKeyMap.values();
@@ -135,18 +242,24 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
   }
 
   /**
-   * Get all the terms which are members of a specified version of a terminology.
+   * Get all the (distinct) terms which are members of a specified version of a terminology.
    *
    * @param vocabularyId the schemeId of the terminology
    * @param versionTag   the specific version of the terminology
-   * @param label        the label of terminology
-   * @return the terms within a specified version of terminology
+   * @param label        a filter on the labels of the terms - all terms are returned if empty
+   * @return the terms within a specified version of terminology, as an immutable List
+   * @see LabelIndex#filter(String)
    */
-
+  @Override
   public Answer<List<ConceptDescriptor>> getTerms(UUID vocabularyId, String versionTag,
       String label) {
-    TerminologyScheme termModel = multiKeyMap.get(newKey(vocabularyId, versionTag));
-    return Answer.of(new ArrayList<>(termModel.getTerms().values()));
+    return metrics.time(METRICS_NAME, "getTerms", () -> {
+      TerminologyScheme termModel = getScheme(vocabularyId, versionTag);
+      if (termModel == null) {
+        return Answer.notFound();
+      }
+      return Answer.of(termModel.getLabelIndex().filter(label));
+    });
   }
 
   /**
@@ -161,47 +274,241 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
    */
   @Override
   public Answer<ConceptDescriptor> getTerm(UUID vocabularyId, String versionTag, String conceptId) {
-    TerminologyScheme terminologyScheme = multiKeyMap.get(newKey(vocabularyId, versionTag));
+    return metrics.time(METRICS_NAME, "getTerm", () -> {
+      TerminologyScheme terminologyScheme = getScheme(vocabularyId, versionTag);
+      return Answer.ofNullable(getTerm(terminologyScheme, conceptId));
+    });
+  }
+
+  /**
+   * Looks up a Term with the given conceptId in a given TerminologyScheme
+   *
+   * @param terminologyScheme - The terminology system, if any
+   * @param conceptId         - The conceptId of the term
+   * @return the descriptor of the concept, or null if not found
+   */
+  private ConceptDescriptor getTerm(TerminologyScheme terminologyScheme, String conceptId) {
+    if (terminologyScheme == null || isEmpty(conceptId)) {
+      return null;
+    }
+    return terminologyScheme.getTerms().get(normalizer.toUUID(conceptId));
+  }
+
+  @Override
+  public Answer<ConceptDescriptor> lookupTerm(String conceptId) {
+    return metrics.time(METRICS_NAME, "lookupTerm", () ->
+        Answer.ofNullable(getLatestTerm(normalizer.toConceptUUID(conceptId))));
+  }
+
+  /**
+   * Looks up the descriptor found in the latest version of the TerminologySchemes that include a
+   * Concept. In lazy mode, only that TerminologyScheme is materialized
+   *
+   * @param conceptKey the UUID of the Concept, or an alias thereof
+   * @return the descriptor of the Concept, or null if not found
+   */
+  private ConceptDescriptor getLatestTerm(UUID conceptKey) {
+    if (!lazy) {
+      return getLatestConceptIndex().get(conceptKey);
+    }
+    TerminologyScheme latestScheme = getLatestSchemeIndex().get(conceptKey);
+    return latestScheme != null
+        ? materialize(latestScheme).getTerms().get(conceptKey)
+        : null;
+  }
 
-    if (terminologyScheme != null && !isEmpty(conceptId)) {
-      Map<UUID, ConceptDescriptor> terms = terminologyScheme.getTerms();
 
-      UUID conceptIdAsUuid = Util.isUUID(conceptId)
-          ? Util.toUUID(conceptId)
-          : Util.uuid(conceptId);
+  /**
+   * Resolves a batch of Concepts, looking up the terminology (or the index of the latest Concepts)
+   * only once
+   *
+   * @param vocabularyId the UUID of a terminology, or null
+   * @param versionTag   the version of the terminology, or null
+   * @param conceptIds   the ids of the Concepts
+   * @return the descriptors of the Concepts that could be resolved, by concept id
+   */
+  @Override
+  public Answer<Map<String, ConceptDescriptor>> resolveTerms(UUID vocabularyId,
+      String versionTag, List<String> conceptIds) {
+    return metrics.time(METRICS_NAME, "resolveTerms",
+        () -> doResolveTerms(vocabularyId, versionTag, conceptIds));
+  }
 
-      if (terms.containsKey(conceptIdAsUuid)) {
-        return Answer.of(terms.get(conceptIdAsUuid));
+  private Answer<Map<String, ConceptDescriptor>> doResolveTerms(UUID vocabularyId,
+      String versionTag, List<String> conceptIds) {
+    Map<String, ConceptDescriptor> resolved = new LinkedHashMap<>();
+    if (vocabularyId != null) {
+      TerminologyScheme terminologyScheme = getScheme(vocabularyId, versionTag);
+      if (terminologyScheme == null) {
+        return Answer.notFound();
+      }
+      for (String conceptId : conceptIds) {
+        ConceptDescriptor cd = getTerm(terminologyScheme, conceptId);
+        if (cd != null) {
+          resolved.put(conceptId, cd);
+        }
+      }
+    } else {
+      for (String conceptId : conceptIds) {
+        ConceptDescriptor cd = getLatestTerm(normalizer.toConceptUUID(conceptId));
+        if (cd != null) {
+          resolved.put(conceptId, cd);
+        }
       }
     }
+    return Answer.of(resolved);
+  }
 
-    return Answer.notFound();
+  /**
+   * Retrieves a version of a TerminologyScheme, materializing its terms if necessary
+   *
+   * @param vocabularyId - The id of the terminology system
+   * @param versionTag   - The version of the terminology
+   * @return the TerminologyScheme, or null if not found
+   */
+  private TerminologyScheme getScheme(UUID vocabularyId, String versionTag) {
+    return materialize(multiKeyMap.get(newKey(vocabularyId, versionTag)));
   }
 
-  @Override
-  public Answer<ConceptDescriptor> lookupTerm(String conceptId) {
-    UUID conceptIdAsUuid = Util.ensureUUID(conceptId)
-        .or(() -> Util.ensureUUID(NameUtils.getTrailingPart(conceptId)))
-        .orElseGet(() -> Util.uuid(conceptId));
-
-    String latestVersion = null;
-    ConceptDescriptor latestCD = null;
-
-    for (TerminologyScheme ts : multiKeyMap.values()) {
-      ConceptDescriptor cd = ts.getTerms().get(conceptIdAsUuid);
-      if (cd != null) {
-        String version = ts.getVersion();
-        if (latestVersion == null
-            || contrastor.contrast(version, latestVersion) == Comparison.BROADER) {
-          latestVersion = version;
-          latestCD = reconcile(cd, latestCD);
+  /**
+   * Materializes the terms of a TerminologyScheme, at most once
+   *
+   * @param terminology the TerminologyScheme, if any
+   * @return the TerminologyScheme, with its terms
+   */
+  private TerminologyScheme materialize(TerminologyScheme terminology) {
+    if (terminology == null || terminology.isMaterialized()) {
+      return terminology;
+    }
+    synchronized (terminology) {
+      if (!terminology.isMaterialized()) {
+        setTerminologyMetadata(terminology);
+        terminology.setMaterialized(true);
+      }
+    }
+    return terminology;
+  }
+
+  /**
+   * Materializes the schemes configured for warm-up, in lazy mode
+   */
+  private void warmUp() {
+    if (isEmpty(warmUp)) {
+      return;
+    }
+    Set<String> hotSchemes = Arrays.stream(warmUp.split(","))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .collect(Collectors.toSet());
+    multiKeyMap.values().stream()
+        .filter(ts -> hotSchemes.contains(ts.getName())
+            || hotSchemes.contains(ts.getTag())
+            || hotSchemes.contains(String.valueOf(ts.getSchemeUUID())))
+        .forEach(this::materialize);
+  }
+
+  /**
+   * Returns the index used by {@link #lookupTerm(String)} in lazy mode, building it on first use
+   * from the identifiers of the terms, without materializing the schemes
+   *
+   * @return the latest scheme that includes each Concept
+   */
+  private Map<UUID, TerminologyScheme> getLatestSchemeIndex() {
+    Map<UUID, TerminologyScheme> index = latestSchemeIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = latestSchemeIndex;
+        if (index == null) {
+          index = indexLatestSchemes(multiKeyMap.values());
+          latestSchemeIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  private Map<UUID, TerminologyScheme> indexLatestSchemes(Collection<TerminologyScheme> schemes) {
+    Map<UUID, TerminologyScheme> latestSchemes = new HashMap<>();
+    for (TerminologyScheme ts : schemes) {
+      long versionKey = ts.getVersionKey();
+      Consumer<UUID> indexer = conceptUuid -> {
+        TerminologyScheme latestScheme = latestSchemes.get(conceptUuid);
+        if (latestScheme == null || versionKey > latestScheme.getVersionKey()) {
+          latestSchemes.put(conceptUuid, ts);
+        }
+      };
+      try {
+        forEachTermKey(ts, indexer);
+      } catch (Exception e) {
+        logger.error("Unable to read the terms of {} : {}", ts.getName(), e.getMessage());
+      }
+    }
+    return latestSchemes;
+  }
+
+  /**
+   * Returns the index used by {@link #lookupTerm(String)} in eager mode, building it on first
+   * use. Since the index spans all the schemes, building it materializes any scheme that has not
+   * been yet
+   *
+   * @return the index of the latest descriptor of each Concept
+   */
+  private Map<UUID, ConceptDescriptor> getLatestConceptIndex() {
+    Map<UUID, ConceptDescriptor> index = latestConceptIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = latestConceptIndex;
+        if (index == null) {
+          multiKeyMap.values().forEach(this::materialize);
+          index = indexLatestConcepts(multiKeyMap.values());
+          latestConceptIndex = index;
         }
       }
     }
-    return Answer.ofNullable(latestCD);
+    return index;
   }
 
-  private long toInstant(String version) {
+  /**
+   * Builds the secondary index used by {@link #lookupTerm(String)}, which maps each Concept key
+   * to the descriptor found in the latest version of the schemes that contain it
+   *
+   * @param schemes the TerminologySchemes to be indexed
+   * @return a Map where the (aliased) Concept UUID is the key, and the latest descriptor the value
+   */
+  Map<UUID, ConceptDescriptor> indexLatestConcepts(Collection<TerminologyScheme> schemes) {
+    Map<UUID, ConceptDescriptor> latestCDs = new HashMap<>();
+    Map<UUID, TerminologyScheme> latestSchemes = new HashMap<>();
+
+    for (TerminologyScheme ts : schemes) {
+      long versionKey = ts.getVersionKey();
+      ts.getTerms().forEach((conceptUuid, cd) -> {
+        TerminologyScheme latestScheme = latestSchemes.get(conceptUuid);
+        if (latestScheme == null || versionKey > latestScheme.getVersionKey()) {
+          latestSchemes.put(conceptUuid, ts);
+          latestCDs.put(conceptUuid, reconcile(cd, latestCDs.get(conceptUuid)));
+        }
+      });
+    }
+    return latestCDs;
+  }
+
+  /**
+   * Maps a date-based version tag (yyyyMMdd, with an optional -nnn suffix) to an epoch-based key,
+   * so that the versions of a TerminologyScheme can be compared by value
+   *
+   * @param version the version tag
+   * @return the version key, or {@link Long#MIN_VALUE} if the version tag is not date-based
+   */
+  static long toVersionKey(String version) {
+    try {
+      return toInstant(version);
+    } catch (DateTimeParseException | NumberFormatException e) {
+      logger.warn("Unable to parse scheme version {} as a date-based tag", version);
+      return Long.MIN_VALUE;
+    }
+  }
+
+  private static long toInstant(String version) {
     String timeComponent = "0";
 
     if (version.contains("-")) {
@@ -210,7 +517,7 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
       version = version.substring(0, split);
     }
 
-    long base = DateTimeFormatter.ofPattern("yyyyMMdd")
+    long base = VERSION_DATE_FORMAT
         .parse(version, TemporalQueries.localDate())
         .atStartOfDay(ZoneId.systemDefault())
         .toInstant().toEpochMilli();
@@ -231,7 +538,7 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
   }
 
   /**
-   * Reads the JSON file and populate the TerminologyModels
+   * Reads the JSON file and registers the TerminologyModels. The terms are materialized separately
    *
    * @return Map where id+version is the key, and TerminologyScheme is the value
    */
@@ -248,14 +555,15 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
                 return new TerminologyScheme[0];
               });
 
-      // for each terminology, set the metadata and terms
+      // register each terminology - the terms are materialized eagerly or lazily
       for (TerminologyScheme terminology : terminologies) {
         UUID id = terminology.getSchemeUUID();
         String version = terminology.getVersion();
         logger.info("Found in terminology file: {} id: {} version: {} name: {} ",
             terminologyFile, id, version, terminology.getName());
 
-        mkm.put(newKey(id, version), setTerminologyMetadata(terminology));
+        terminology.setVersionKey(toVersionKey(version));
+        mkm.put(newKey(id, version), terminology);
       }
     } catch (Exception e) {
       /*
@@ -270,27 +578,100 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
   }
 
   /**
-   * Set the terminology map using the terminologyId and version as keys. Set the terms for the
-   * terminology.
+   * Loads the binary index of the terms, if configured. Falls back to the terminology classes
+   * if the index cannot be loaded
    *
-   * @param terminology the TerminologyScheme to be populated
+   * @return the binary index, or null if not configured or not available
    */
-  private static TerminologyScheme setTerminologyMetadata(TerminologyScheme terminology)
-      throws ClassNotFoundException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-    Map<UUID, ConceptDescriptor> terms = new HashMap<>();
+  private BinaryTerminologyIndex loadBinaryIndex() {
+    if (!useBinaryIndex) {
+      return null;
+    }
+    boolean configured = !isEmpty(binaryIndexFile);
+    String location = configured
+        ? binaryIndexFile
+        : BinaryIndexFormat.toBinaryIndexPath(terminologyFile);
+    if (!configured && !BinaryTerminologyIndex.exists(location)) {
+      logger.debug("No binary index found at {}, will use the terminology classes", location);
+      return null;
+    }
+    try {
+      return BinaryTerminologyIndex.load(location);
+    } catch (IOException e) {
+      logger.warn("Unable to load binary index file {}, will use the terminology classes : {}",
+          location, e.getMessage());
+      return null;
+    }
+  }
 
-    getTermsFromTerminologyClass(terminology).forEach(cd -> {
-      // index by uuid, tag and resourceId
-      terms.put(cd.getUuid(), cd);
-      terms.put(uuid(cd.getTag()), cd);
-      terms.put(uuid(cd.getResourceId().toString()), cd);
-    });
+  /**
+   * Set the terms for the terminology, indexed by UUID, tag and resourceId. A terminology whose
+   * terms cannot be read is left empty
+   *
+   * @param terminology the TerminologyScheme to be populated
+   */
+  private TerminologyScheme setTerminologyMetadata(TerminologyScheme terminology) {
+    List<ConceptDescriptor> descriptors;
+    try {
+      descriptors = ConceptInterner.shared().internAll(readTerms(terminology));
+    } catch (Exception e) {
+      logger.error("Unable to read the terms of {} : {}", terminology.getName(), e.getMessage());
+      descriptors = new ArrayList<>();
+    }
 
-    terminology.setTerms(terms);
+    // index by uuid, tag and resourceId
+    terminology.setTerms(ConceptIndex.of(descriptors, cd -> new UUID[]{
+        cd.getUuid(), uuid(cd.getTag()), uuid(cd.getResourceId().toString())}));
+    terminology.setTermList(Collections.unmodifiableList(descriptors));
+    terminology.setLabelIndex(LabelIndex.of(terminology.getTermList()));
+    terminology.setAncestorClosure(AncestorClosure.of(descriptors));
+    terminology.setAncestorDescriptors(convertAncestorsToListsOfDescriptors(descriptors));
 
     return terminology;
   }
 
+  /**
+   * Retrieves the terms of a terminology, from the binary index if it contains them, or from the
+   * terminology Class otherwise
+   *
+   * @param terminologyScheme the terminologyScheme
+   * @return the terms for the terminology
+   */
+  private List<ConceptDescriptor> readTerms(TerminologyScheme terminologyScheme)
+      throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, IOException {
+    if (binaryIndex != null && binaryIndex.contains(terminologyScheme.getKey())) {
+      return binaryIndex.readTerms(terminologyScheme.getKey());
+    }
+    return getTermsFromTerminologyClass(terminologyScheme);
+  }
+
+  /**
+   * Applies an action to the keys (UUID, tag and resourceId) of each term in a terminology, as
+   * indexed once materialized. The terms are read from the binary index if it contains them, or
+   * from the terminology Class otherwise, without creating their descriptors
+   *
+   * @param terminologyScheme the terminologyScheme
+   * @param action            the action
+   */
+  private void forEachTermKey(TerminologyScheme terminologyScheme, Consumer<UUID> action)
+      throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, IOException {
+    if (terminologyScheme.isMaterialized()) {
+      terminologyScheme.getTerms().forEach((key, cd) -> action.accept(key));
+    } else if (binaryIndex != null && binaryIndex.contains(terminologyScheme.getKey())) {
+      binaryIndex.forEachTermId(terminologyScheme.getKey(), (id, tag, resourceId) -> {
+        action.accept(id);
+        action.accept(uuid(tag));
+        action.accept(uuid(resourceId));
+      });
+    } else {
+      for (ConceptTerm term : getTerminologyClassTerms(terminologyScheme)) {
+        action.accept(term.getUuid());
+        action.accept(uuid(term.getTag()));
+        action.accept(uuid(term.getResourceId().toString()));
+      }
+    }
+  }
+
   /**
    * Uses reflection to retrieve the terms from the terminology Class.
    *
@@ -300,6 +681,11 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
   private static List<ConceptDescriptor> getTermsFromTerminologyClass(
       TerminologyScheme terminologyScheme)
       throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    return convertTermArrayToListOfDescriptors(getTerminologyClassTerms(terminologyScheme));
+  }
+
+  private static ConceptTerm[] getTerminologyClassTerms(TerminologyScheme terminologyScheme)
+      throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
     Class<?> cls = Class.forName(terminologyScheme.getName());
     Object obj = null;
     try {
@@ -308,9 +694,7 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
       // expected exception
     }
     Method method = cls.getDeclaredMethod("values");
-    ConceptTerm[] terms = (ConceptTerm[]) method.invoke(obj);
-
-    return convertTermArrayToListOfDescriptors(terms);
+    return (ConceptTerm[]) method.invoke(obj);
   }
 
   /**
@@ -324,32 +708,41 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
   @Override
   public Answer<List<ConceptDescriptor>> listAncestors(UUID vocabularyId, String versionTag,
       String conceptId) {
-    Answer<ConceptDescriptor> conceptDescriptor = getTerm(vocabularyId, versionTag, conceptId);
-    return Answer.of(convertTermArrayToListOfDescriptors(conceptDescriptor.get().getAncestors()));
+    return metrics.time(METRICS_NAME, "listAncestors", () -> {
+      TerminologyScheme terminologyScheme = getScheme(vocabularyId, versionTag);
+      ConceptDescriptor conceptDescriptor = getTerm(terminologyScheme, conceptId);
+      if (conceptDescriptor == null) {
+        return Answer.notFound();
+      }
+      return Answer.of(
+          terminologyScheme.getAncestorDescriptors().get(conceptDescriptor.getUuid()));
+    });
   }
 
   /**
-   * Finds out if a concept is an ancestor of another concept
+   * Finds out if a concept is an ancestor of another concept, using the precomputed closure of the
+   * ancestor relationships within the terminology
    *
    * @param vocabularyId  - The id of the terminology system
    * @param versionTag    - the tag for the terminology
    * @param conceptId     - the id of the concept who is looking to find if another is an ancestor
-   * @param testConceptId - the id of the possible ancestor
+   * @param testConceptId - the UUID of the possible (direct or indirect) ancestor
    * @return a boolean indicating if the testConceptId is an ancestor
    */
   @Override
   public Answer<Boolean> isAncestor(UUID vocabularyId, String versionTag, String conceptId,
       String testConceptId) {
-    Answer<ConceptDescriptor> conceptDescriptor = getTerm(vocabularyId, versionTag, conceptId);
-    Term[] ancestors = conceptDescriptor.get().getAncestors();
-    if (ancestors != null) {
-      for (int i = 0; i < ancestors.length; i++) {
-        if (testConceptId.equals(ancestors[i].getUuid().toString())) {
-          return Answer.of(Boolean.TRUE);
-        }
+    return metrics.time(METRICS_NAME, "isAncestor", () -> {
+      TerminologyScheme terminologyScheme = getScheme(vocabularyId, versionTag);
+      ConceptDescriptor conceptDescriptor = getTerm(terminologyScheme, conceptId);
+      if (conceptDescriptor == null) {
+        return Answer.notFound();
       }
-    }
-    return Answer.of(Boolean.FALSE);
+      boolean isAncestor = Util.isUUID(testConceptId)
+          && terminologyScheme.getAncestorClosure()
+          .isAncestor(conceptDescriptor.getUuid(), Util.toUUID(testConceptId));
+      return Answer.of(isAncestor);
+    });
   }
 
   /**
@@ -369,6 +762,36 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
     return descriptors;
   }
 
+  /**
+   * Converts the ancestors of each of the given ConceptDescriptors to immutable Lists of
+   * ConceptDescriptors. Ancestors are converted once, and descriptors are shared between the
+   * Lists, reusing the given ConceptDescriptors where possible
+   *
+   * @param concepts the ConceptDescriptors
+   * @return a Map where the UUID of each Concept is the key, and its ancestors are the value
+   */
+  private static Map<UUID, List<ConceptDescriptor>> convertAncestorsToListsOfDescriptors(
+      List<ConceptDescriptor> concepts) {
+    Map<UUID, ConceptDescriptor> converted = new HashMap<>();
+    concepts.forEach(cd -> converted.put(cd.getUuid(), cd));
+
+    Map<UUID, List<ConceptDescriptor>> ancestors = new HashMap<>();
+    for (ConceptDescriptor cd : concepts) {
+      List<ConceptDescriptor> descriptors = new ArrayList<>();
+      if (cd.getAncestors() != null) {
+        for (Term term : cd.getAncestors()) {
+          descriptors.add(converted.computeIfAbsent(term.getUuid(),
+              k -> term instanceof ConceptDescriptor
+                  ? (ConceptDescriptor) term
+                  : ConceptInterner.shared()
+                      .intern(ConceptDescriptor.toConceptDescriptor((ConceptTerm) term))));
+        }
+      }
+      ancestors.put(cd.getUuid(), Collections.unmodifiableList(descriptors));
+    }
+    return ancestors;
+  }
+
   //  The methods below will be implemented at a later date.
 
 
@@ -423,4 +846,35 @@ public class TermsProvider implements TermsApiInternal, CompositeTermsServer {
   public Optional<TermsApiInternal> getFHIRBasedComponent() {
     return Optional.empty();
   }
+
+  /**
+   * @return true if the terms are decoded from a binary index
+   */
+  boolean hasBinaryIndex() {
+    return binaryIndex != null;
+  }
+
+  /**
+   * @param vocabularyId the UUID of a terminology
+   * @param versionTag   the version of the terminology
+   * @return true if the terms of that terminology version have been materialized
+   */
+  boolean isMaterialized(UUID vocabularyId, String versionTag) {
+    TerminologyScheme terminology = multiKeyMap.get(newKey(vocabularyId, versionTag));
+    return terminology != null && terminology.isMaterialized();
+  }
+
+  /**
+   * @return the number of Concepts in the terminologies materialized so far
+   */
+  @Override
+  public long getIndexSize() {
+    if (multiKeyMap == null) {
+      return 0;
+    }
+    return multiKeyMap.values().stream()
+        .filter(TerminologyScheme::isMaterialized)
+        .mapToLong(scheme -> scheme.getTermList().size())
+        .sum();
+  }
 }
@@ -7,13 +7,32 @@ import edu.mayo.kmdp.health.service.HealthService;
 import edu.mayo.kmdp.health.utils.MonitorUtil;
 import edu.mayo.kmdp.terms.CompositeTermsServer;
 import edu.mayo.kmdp.terms.CompositeTermsServer.TYPE;
+import edu.mayo.kmdp.terms.TermsFHIRFacade;
+import edu.mayo.kmdp.terms.TermsProvider;
+import edu.mayo.kmdp.terms.metrics.InMemoryTermsMetrics;
+import edu.mayo.kmdp.terms.metrics.TermsMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.omg.spec.api4kp._20200801.Answer;
 import org.omg.spec.api4kp._20200801.api.terminology.v4.server.TermsApiInternal;
 import org.omg.spec.api4kp._20200801.id.Pointer;
 import org.omg.spec.api4kp._20200801.id.ResourceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StopWatch;
 
@@ -21,9 +40,21 @@ import org.springframework.util.StopWatch;
  * A {@link edu.mayo.kmdp.health.service.HealthService} that interrogates a TermsApiInternal
  * implementation for the purpose of determining if it (and possibly its subcomponents) are
  * available and functioning as expected (ie: UP, DOWN, or IMPAIRED).
+ * <p>
+ * If a refresh interval is configured, the assessment is computed in the background at that
+ * interval, and served from cache, together with its age. A cached assessment that has missed too
+ * many refreshes is reported as stale, and IMPAIRED.
+ * <p>
+ * Each terminology provider also reports its recent lookup latency (if the calls are tracked by
+ * an {@link InMemoryTermsMetrics}), when it was last indexed, and the size of its index. A
+ * provider that breaches any of the configured SLO thresholds is reported as IMPAIRED. The latency
+ * thresholds only apply once enough lookups have been sampled over the rolling window, so that a
+ * single slow call (e.g. the first, cold lookup) does not impair an otherwise idle provider.
  */
 public class TermsHealthService implements HealthService {
 
+  private static final Logger logger = LoggerFactory.getLogger(TermsHealthService.class);
+
   public static final String DELIMITER = ",";
   public static final String NAME = "Terminology Provider";
   public static final String TERMS_TYPE = "edu.mayo.kmdp.terms.type";
@@ -35,16 +66,201 @@ public class TermsHealthService implements HealthService {
   public static final String ENUM_BASED_TERMINOLOGY_PROVIDER = "Enum Based Terminology Provider";
   public static final String FHIR_BASED_TERMINOLOGY_PROVIDER = "FHIR Based Terminology Provider";
   public static final String TERMINOLOGY_BROKER_HAS_NO_COMPONENTS = "Terminology Broker has NO components";
+  public static final String TERMS_HEALTH_ASSESSED_AT = "edu.mayo.kmdp.terms.health.assessedAt";
+  public static final String TERMS_HEALTH_AGE_MS = "edu.mayo.kmdp.terms.health.ageMs";
+  public static final String TERMS_HEALTH_STALE = "edu.mayo.kmdp.terms.health.stale";
+  public static final String STALE_HEALTH_ASSESSMENT = "Health assessment is stale";
+  public static final String TERMS_LATENCY_P95_MS = "edu.mayo.kmdp.terms.latency.p95Ms";
+  public static final String TERMS_LATENCY_P99_MS = "edu.mayo.kmdp.terms.latency.p99Ms";
+  public static final String TERMS_LATENCY_SAMPLES = "edu.mayo.kmdp.terms.latency.samples";
+  public static final String TERMS_LAST_INDEXED = "edu.mayo.kmdp.terms.index.lastIndexed";
+  public static final String TERMS_INDEX_SIZE = "edu.mayo.kmdp.terms.index.size";
+  public static final String SLO_BREACHED = "SLO breached: ";
+
+  /**
+   * The operations whose latency is reported as the lookup latency of a provider
+   */
+  public static final List<String> LOOKUP_OPERATIONS = Arrays.asList("getTerm", "lookupTerm");
+
+  static final long DEFAULT_REFRESH_INTERVAL_SECONDS = 0;
+  static final int DEFAULT_MAX_MISSED_REFRESHES = 3;
+  static final long DEFAULT_MIN_LATENCY_SAMPLES = 20;
 
   protected TermsApiInternal termsApiInternal;
 
+  /**
+   * How often the health is assessed in the background. Set to 0 (the default) to assess the
+   * health on every request instead
+   */
+  @Value("${edu.mayo.kmdp.terms.health.refreshIntervalSeconds:0}")
+  protected long refreshIntervalSeconds = DEFAULT_REFRESH_INTERVAL_SECONDS;
+
+  /**
+   * How many refreshes a cached assessment can miss before it is considered stale
+   */
+  @Value("${edu.mayo.kmdp.terms.health.maxMissedRefreshes:3}")
+  protected int maxMissedRefreshes = DEFAULT_MAX_MISSED_REFRESHES;
+
+  /**
+   * The maximum acceptable p95 lookup latency, over the rolling window of the metrics, in
+   * milliseconds. Set to 0 (the default) to disable the check
+   */
+  @Value("${edu.mayo.kmdp.terms.health.slo.p95LatencyMs:0}")
+  protected long p95LatencyMs;
+
+  /**
+   * The maximum acceptable p99 lookup latency, over the rolling window of the metrics, in
+   * milliseconds. Set to 0 (the default) to disable the check
+   */
+  @Value("${edu.mayo.kmdp.terms.health.slo.p99LatencyMs:0}")
+  protected long p99LatencyMs;
+
+  /**
+   * The minimum number of lookups, over the rolling window of the metrics, before the latency
+   * thresholds apply
+   */
+  @Value("${edu.mayo.kmdp.terms.health.slo.minLatencySamples:20}")
+  protected long minLatencySamples = DEFAULT_MIN_LATENCY_SAMPLES;
+
+  /**
+   * The maximum acceptable time since a provider last (successfully) indexed its content, in
+   * minutes. Set to 0 (the default) to disable the check
+   */
+  @Value("${edu.mayo.kmdp.terms.health.slo.maxIndexAgeMinutes:0}")
+  protected long maxIndexAgeMinutes;
+
+  /**
+   * The metrics of the terminology providers, if tracked in memory
+   */
+  protected InMemoryTermsMetrics metrics;
+
+  private ScheduledExecutorService refresher;
+
+  /**
+   * The latest assessment, if computed in the background
+   */
+  private volatile CachedAssessment cached;
+
+  LongSupplier clock = System::currentTimeMillis;
+
   public TermsHealthService(@Autowired TermsApiInternal termsApiInternal) {
     this.termsApiInternal = termsApiInternal;
   }
 
+  @Autowired(required = false)
+  public void setMetrics(TermsMetrics metrics) {
+    this.metrics = metrics instanceof InMemoryTermsMetrics
+        ? (InMemoryTermsMetrics) metrics
+        : null;
+  }
+
+  @PostConstruct
+  void init() {
+
+    if (refreshIntervalSeconds > 0) {
+
+      refresh();
+
+      refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread worker = new Thread(runnable, "terms-health-refresh");
+        worker.setDaemon(true);
+        return worker;
+      });
+      refresher.scheduleWithFixedDelay(this::refresh,
+          refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+
+    }
+
+  }
+
+  @PreDestroy
+  void shutdown() {
+
+    if (refresher != null) {
+      refresher.shutdownNow();
+      refresher = null;
+    }
+
+  }
+
   @Override
   public ApplicationComponent assessHealth() {
 
+    CachedAssessment assessment = cached;
+
+    return assessment != null
+        ? serve(assessment)
+        : assessNow();
+
+  }
+
+  /**
+   * Assesses the health, and caches the assessment
+   */
+  void refresh() {
+
+    try {
+
+      ApplicationComponent applicationComponent = assessNow();
+      cached = new CachedAssessment(applicationComponent, clock.getAsLong());
+
+    } catch (RuntimeException e) {
+
+      // keep the scheduled refreshes alive - the cached assessment will eventually become stale
+      logger.error("Unable to refresh the terminology health assessment : {}", e.getMessage(), e);
+
+    }
+
+  }
+
+  /**
+   * Serves a cached assessment, as a copy that includes the age of the assessment
+   *
+   * @param assessment the cached assessment
+   * @return the assessment, reported as IMPAIRED if stale
+   */
+  protected ApplicationComponent serve(CachedAssessment assessment) {
+
+    ApplicationComponent applicationComponent = copyOf(assessment.applicationComponent);
+
+    long age = Math.max(0, clock.getAsLong() - assessment.assessedAt);
+    boolean stale =
+        age > TimeUnit.SECONDS.toMillis(refreshIntervalSeconds) * Math.max(1, maxMissedRefreshes);
+
+    MiscProperties miscProperties = applicationComponent.getDetails();
+    miscProperties.put(TERMS_HEALTH_ASSESSED_AT,
+        Instant.ofEpochMilli(assessment.assessedAt).toString());
+    miscProperties.put(TERMS_HEALTH_AGE_MS, Long.toString(age));
+    miscProperties.put(TERMS_HEALTH_STALE, Boolean.toString(stale));
+
+    if (stale && Status.UP.equals(applicationComponent.getStatus())) {
+
+      applicationComponent.setStatus(Status.IMPAIRED);
+      applicationComponent.setStatusMessage(STALE_HEALTH_ASSESSMENT);
+
+    }
+
+    return applicationComponent;
+
+  }
+
+  private ApplicationComponent copyOf(ApplicationComponent source) {
+
+    ApplicationComponent copy = initializeApplicationComponent(source.getName());
+    copy.setStatus(source.getStatus());
+    copy.setStatusMessage(source.getStatusMessage());
+    copy.getDetails().putAll(source.getDetails());
+
+    if (!CollectionUtils.isEmpty(source.getComponents())) {
+      source.getComponents().forEach(copy::addComponentsItem);
+    }
+
+    return copy;
+
+  }
+
+  protected ApplicationComponent assessNow() {
+
     ApplicationComponent applicationComponent = initializeApplicationComponent(NAME);
 
     StopWatch stopWatch = new StopWatch();
@@ -154,10 +370,96 @@ public class TermsHealthService implements HealthService {
 
     assessStatus(termsApiInternal, applicationComponent);
 
+    if (termsApiInternal instanceof CompositeTermsServer) {
+
+      assessServiceLevel((CompositeTermsServer) termsApiInternal, applicationComponent);
+
+    }
+
     return applicationComponent;
 
   }
 
+  /**
+   * Reports the recent lookup latency, the last indexing time and the index size of a provider,
+   * and marks a provider that is otherwise UP as IMPAIRED if any SLO threshold is breached
+   *
+   * @param compositeTermsServer the provider
+   * @param applicationComponent the component that reports on the provider
+   */
+  protected void assessServiceLevel(CompositeTermsServer compositeTermsServer,
+      ApplicationComponent applicationComponent) {
+
+    MiscProperties miscProperties = applicationComponent.getDetails();
+    List<String> breaches = new ArrayList<>();
+
+    String provider = getMetricsName(compositeTermsServer.getType());
+    if (metrics != null && provider != null) {
+
+      long samples = metrics.getRecentCount(provider, LOOKUP_OPERATIONS);
+      double p95 = metrics.getRecentPercentile(provider, LOOKUP_OPERATIONS, 95) / 1e6;
+      double p99 = metrics.getRecentPercentile(provider, LOOKUP_OPERATIONS, 99) / 1e6;
+      miscProperties.put(TERMS_LATENCY_SAMPLES, Long.toString(samples));
+      miscProperties.put(TERMS_LATENCY_P95_MS, String.format(Locale.ROOT, "%.3f", p95));
+      miscProperties.put(TERMS_LATENCY_P99_MS, String.format(Locale.ROOT, "%.3f", p99));
+
+      if (samples >= minLatencySamples) {
+        if (p95LatencyMs > 0 && p95 > p95LatencyMs) {
+          breaches.add(String.format(Locale.ROOT,
+              "p95 lookup latency %.1f ms > %d ms", p95, p95LatencyMs));
+        }
+        if (p99LatencyMs > 0 && p99 > p99LatencyMs) {
+          breaches.add(String.format(Locale.ROOT,
+              "p99 lookup latency %.1f ms > %d ms", p99, p99LatencyMs));
+        }
+      }
+
+    }
+
+    Optional<Instant> lastIndexed = compositeTermsServer.getLastIndexed();
+    if (lastIndexed.isPresent()) {
+
+      miscProperties.put(TERMS_LAST_INDEXED, lastIndexed.get().toString());
+
+      long indexAgeMinutes = Duration.between(
+          lastIndexed.get(), Instant.ofEpochMilli(clock.getAsLong())).toMinutes();
+      if (maxIndexAgeMinutes > 0 && indexAgeMinutes > maxIndexAgeMinutes) {
+        breaches.add(String.format(Locale.ROOT,
+            "index last updated %d min ago > %d min", indexAgeMinutes, maxIndexAgeMinutes));
+      }
+
+    }
+
+    long indexSize = compositeTermsServer.getIndexSize();
+    if (indexSize >= 0) {
+      miscProperties.put(TERMS_INDEX_SIZE, Long.toString(indexSize));
+    }
+
+    if (!breaches.isEmpty() && Status.UP.equals(applicationComponent.getStatus())) {
+
+      applicationComponent.setStatus(Status.IMPAIRED);
+      applicationComponent.setStatusMessage(SLO_BREACHED + String.join("; ", breaches));
+
+    }
+
+  }
+
+  /**
+   * @param type the type of a provider
+   * @return the name the provider records its calls under, if it records any
+   */
+  protected String getMetricsName(TYPE type) {
+
+    if (TYPE.ENUM.equals(type)) {
+      return TermsProvider.METRICS_NAME;
+    } else if (TYPE.FHIR.equals(type)) {
+      return TermsFHIRFacade.METRICS_NAME;
+    }
+
+    return null;
+
+  }
+
   protected void assessStatus(TermsApiInternal termsApiInternal,
       ApplicationComponent applicationComponent) {
 
@@ -193,4 +495,18 @@ public class TermsHealthService implements HealthService {
 
   }
 
+  /**
+   * A health assessment, and the time (in millis) it was made
+   */
+  protected static class CachedAssessment {
+
+    final ApplicationComponent applicationComponent;
+    final long assessedAt;
+
+    CachedAssessment(ApplicationComponent applicationComponent, long assessedAt) {
+      this.applicationComponent = applicationComponent;
+      this.assessedAt = assessedAt;
+    }
+  }
+
 }
@@ -0,0 +1,202 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * A precomputed, transitive closure of the ancestor relationships between the Concepts of a
+ * TerminologyScheme.
+ * <p>
+ * Each Concept (or ancestor thereof) is assigned an ordinal, and is associated to the sorted
+ * array of the ordinals of its direct and indirect ancestors, so that subsumption tests are
+ * reduced to a lookup followed by a binary search. The size of each closure is proportional to
+ * the number of ancestors of the Concept, regardless of the size of the TerminologyScheme
+ */
+public class AncestorClosure {
+
+  private static final int UNVISITED = 0;
+  private static final int VISITING = 1;
+  private static final int VISITED = 2;
+
+  private static final int[] NO_ANCESTORS = new int[0];
+
+  /**
+   * Maps the UUID of a Concept to its ordinal
+   */
+  private final Map<UUID, Integer> ordinals;
+
+  /**
+   * The (sorted) ordinals of the ancestors of each Concept, indexed by ordinal
+   */
+  private final int[][] closures;
+
+  private AncestorClosure(Map<UUID, Integer> ordinals, int[][] closures) {
+    this.ordinals = ordinals;
+    this.closures = closures;
+  }
+
+  /**
+   * Builds the closure of the ancestor relationships asserted by the given Concepts.
+   * <p>
+   * Ancestors that are not themselves part of the given Concepts are indexed, but are not
+   * expanded any further
+   *
+   * @param concepts the (distinct) Concepts of a TerminologyScheme
+   * @return the closure of the ancestors of the Concepts
+   */
+  public static AncestorClosure of(Collection<ConceptDescriptor> concepts) {
+    Map<UUID, Integer> ordinals = new HashMap<>();
+    List<int[]> parents = new ArrayList<>();
+
+    for (ConceptDescriptor cd : concepts) {
+      ordinalOf(cd.getUuid(), ordinals, parents);
+    }
+    for (ConceptDescriptor cd : concepts) {
+      int[] direct = toOrdinals(cd, ordinals, parents);
+      parents.set(ordinals.get(cd.getUuid()), direct);
+    }
+
+    int n = parents.size();
+    int[][] closures = new int[n][];
+    int[] state = new int[n];
+    for (int j = 0; j < n; j++) {
+      if (state[j] == UNVISITED) {
+        close(j, parents, closures, state);
+      }
+    }
+    return new AncestorClosure(ordinals, closures);
+  }
+
+  /**
+   * Subsumption test
+   *
+   * @param conceptId     the UUID of the Concept
+   * @param testConceptId the UUID of the candidate ancestor Concept
+   * @return true if testConceptId is a direct or indirect ancestor of conceptId
+   */
+  public boolean isAncestor(UUID conceptId, UUID testConceptId) {
+    Integer concept = ordinals.get(conceptId);
+    if (concept == null) {
+      return false;
+    }
+    Integer ancestor = ordinals.get(testConceptId);
+    return ancestor != null && Arrays.binarySearch(closures[concept], ancestor) >= 0;
+  }
+
+  private static int[] toOrdinals(ConceptDescriptor cd,
+      Map<UUID, Integer> ordinals, List<int[]> parents) {
+    Term[] ancestors = cd.getAncestors();
+    Term[] closure = cd.getClosure();
+    int na = ancestors != null ? ancestors.length : 0;
+    int nc = closure != null ? closure.length : 0;
+
+    int[] direct = new int[na + nc];
+    for (int j = 0; j < na; j++) {
+      direct[j] = ordinalOf(ancestors[j].getUuid(), ordinals, parents);
+    }
+    for (int j = 0; j < nc; j++) {
+      direct[na + j] = ordinalOf(closure[j].getUuid(), ordinals, parents);
+    }
+    return direct;
+  }
+
+  private static int ordinalOf(UUID uuid, Map<UUID, Integer> ordinals, List<int[]> parents) {
+    return ordinals.computeIfAbsent(uuid, k -> {
+      parents.add(NO_ANCESTORS);
+      return parents.size() - 1;
+    });
+  }
+
+  /**
+   * Closes the ancestors of a Concept, and of its (yet unvisited) ancestors, depth first. The
+   * traversal uses an explicit stack, so that deep hierarchies cannot overflow the call stack.
+   * A cycle in the hierarchy leaves the (partial) closure of the nodes on the cycle unchanged
+   */
+  private static void close(int root, List<int[]> parents, int[][] closures, int[] state) {
+    Deque<Frame> stack = new ArrayDeque<>();
+    state[root] = VISITING;
+    stack.push(new Frame(root));
+
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      int[] direct = parents.get(frame.node);
+      if (frame.next < direct.length) {
+        int parent = direct[frame.next++];
+        if (parent == frame.node) {
+          continue;
+        }
+        frame.add(parent);
+        if (state[parent] == UNVISITED) {
+          state[parent] = VISITING;
+          stack.push(new Frame(parent));
+        } else if (closures[parent] != null) {
+          frame.addAll(closures[parent]);
+        }
+      } else {
+        stack.pop();
+        int[] closure = frame.toSortedSet();
+        closures[frame.node] = closure;
+        state[frame.node] = VISITED;
+        if (!stack.isEmpty()) {
+          stack.peek().addAll(closure);
+        }
+      }
+    }
+  }
+
+  /**
+   * A node being closed, with the ancestors collected so far
+   */
+  private static final class Frame {
+
+    final int node;
+    int next;
+    int[] ancestors = NO_ANCESTORS;
+    int size;
+
+    Frame(int node) {
+      this.node = node;
+    }
+
+    void add(int ancestor) {
+      ensureCapacity(size + 1);
+      ancestors[size++] = ancestor;
+    }
+
+    void addAll(int[] more) {
+      ensureCapacity(size + more.length);
+      System.arraycopy(more, 0, ancestors, size, more.length);
+      size += more.length;
+    }
+
+    int[] toSortedSet() {
+      if (size == 0) {
+        return NO_ANCESTORS;
+      }
+      Arrays.sort(ancestors, 0, size);
+      int distinct = 1;
+      for (int j = 1; j < size; j++) {
+        if (ancestors[j] != ancestors[distinct - 1]) {
+          ancestors[distinct++] = ancestors[j];
+        }
+      }
+      return Arrays.copyOf(ancestors, distinct);
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > ancestors.length) {
+        ancestors = Arrays.copyOf(ancestors, Math.max(capacity, ancestors.length * 2 + 4));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,223 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static edu.mayo.kmdp.terms.impl.BinaryIndexFormat.FORMAT_VERSION;
+import static edu.mayo.kmdp.terms.impl.BinaryIndexFormat.MAGIC;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readDescriptor;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readDescriptorIds;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.skipFully;
+
+import edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.DescriptorIdConsumer;
+
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * Reader for the binary index of the materialized terms, written at build time by the
+ * TerminologyIndexer alongside the JSON index of the terminologies.
+ * <p>
+ * The index is memory-mapped when available as a file, or read from the classpath otherwise. The
+ * terms of each scheme are decoded on demand, so that loading the index does not require the
+ * terminology classes to be initialized
+ */
+public class BinaryTerminologyIndex {
+
+  /**
+   * The encoded terms of each scheme, by scheme (version) key
+   */
+  private final Map<UUID, ByteBuffer> blocks;
+
+  private BinaryTerminologyIndex(Map<UUID, ByteBuffer> blocks) {
+    this.blocks = blocks;
+  }
+
+  /**
+   * Loads a binary index
+   *
+   * @param location the path of the index, either in the file system or on the classpath
+   * @return the index
+   * @throws IOException if the index is not found, or could not be read
+   */
+  public static BinaryTerminologyIndex load(String location) throws IOException {
+    ByteBuffer buffer = map(location);
+    if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+      throw new IOException("Unrecognized binary terminology index format " + location);
+    }
+
+    int numSchemes = buffer.getInt();
+    Map<UUID, ByteBuffer> blocks = new HashMap<>();
+    for (int j = 0; j < numSchemes; j++) {
+      UUID schemeKey = buffer.get() != 0
+          ? new UUID(buffer.getLong(), buffer.getLong())
+          : null;
+      int length = buffer.getInt();
+      ByteBuffer block = buffer.slice();
+      block.limit(length);
+      blocks.put(schemeKey, block);
+      buffer.position(buffer.position() + length);
+    }
+    return new BinaryTerminologyIndex(blocks);
+  }
+
+  /**
+   * @param location the path of an index, either in the file system or on the classpath
+   * @return true if the index exists at that location
+   */
+  public static boolean exists(String location) {
+    return Files.isRegularFile(Paths.get(location))
+        || BinaryTerminologyIndex.class.getResource("/" + location) != null;
+  }
+
+  /**
+   * @param schemeKey the UUID-based key of a terminology version
+   * @return true if the index contains the terms of that terminology version
+   */
+  public boolean contains(UUID schemeKey) {
+    return blocks.containsKey(schemeKey);
+  }
+
+  /**
+   * Decodes the terms of a terminology version, restoring the ancestors (and closure) of each
+   * term as ConceptDescriptors
+   *
+   * @param schemeKey the UUID-based key of a terminology version
+   * @return the descriptors of the terms in that terminology version
+   * @throws IOException if the terms could not be decoded
+   */
+  public List<ConceptDescriptor> readTerms(UUID schemeKey) throws IOException {
+    ByteBuffer block = blocks.get(schemeKey);
+    if (block == null) {
+      throw new IOException("No terms indexed for scheme " + schemeKey);
+    }
+
+    try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(block.duplicate()))) {
+      int numDescriptors = in.readInt();
+      int numConcepts = in.readInt();
+
+      ConceptDescriptor[] descriptors = new ConceptDescriptor[numDescriptors];
+      int[][] ancestors = new int[numDescriptors][];
+      int[][] closures = new int[numDescriptors][];
+      for (int j = 0; j < numDescriptors; j++) {
+        descriptors[j] = readDescriptor(in);
+        ancestors[j] = readPositions(in);
+        closures[j] = readPositions(in);
+      }
+      for (int j = 0; j < numDescriptors; j++) {
+        descriptors[j].setAncestors(toTerms(ancestors[j], descriptors));
+        descriptors[j].setClosure(toTerms(closures[j], descriptors));
+      }
+
+      List<ConceptDescriptor> terms = new ArrayList<>(numConcepts);
+      for (int j = 0; j < numConcepts; j++) {
+        terms.add(descriptors[j]);
+      }
+      return terms;
+    }
+  }
+
+  /**
+   * Scans the identifiers of the terms of a terminology version, without decoding the terms
+   *
+   * @param schemeKey the UUID-based key of a terminology version
+   * @param action    the consumer of the identifiers of each term
+   * @throws IOException if the terms could not be scanned
+   */
+  public void forEachTermId(UUID schemeKey, DescriptorIdConsumer action) throws IOException {
+    ByteBuffer block = blocks.get(schemeKey);
+    if (block == null) {
+      throw new IOException("No terms indexed for scheme " + schemeKey);
+    }
+
+    try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(block.duplicate()))) {
+      in.readInt();
+      int numConcepts = in.readInt();
+      for (int j = 0; j < numConcepts; j++) {
+        readDescriptorIds(in, action);
+        // ancestor and closure positions
+        skipFully(in, Integer.BYTES * in.readInt());
+        skipFully(in, Integer.BYTES * in.readInt());
+      }
+    }
+  }
+
+  private static int[] readPositions(DataInputStream in) throws IOException {
+    int[] positions = new int[in.readInt()];
+    for (int j = 0; j < positions.length; j++) {
+      positions[j] = in.readInt();
+    }
+    return positions;
+  }
+
+  private static Term[] toTerms(int[] positions, ConceptDescriptor[] descriptors) {
+    Term[] terms = new Term[positions.length];
+    for (int j = 0; j < positions.length; j++) {
+      terms[j] = descriptors[positions[j]];
+    }
+    return terms;
+  }
+
+  private static ByteBuffer map(String location) throws IOException {
+    Path path = Paths.get(location);
+    if (Files.isRegularFile(path)) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        return channel.map(MapMode.READ_ONLY, 0, channel.size());
+      }
+    }
+    try (InputStream is = BinaryTerminologyIndex.class.getResourceAsStream("/" + location)) {
+      if (is == null) {
+        throw new FileNotFoundException("Binary terminology index not found : " + location);
+      }
+      return ByteBuffer.wrap(is.readAllBytes());
+    }
+  }
+
+  /**
+   * Adapts a ByteBuffer to an InputStream
+   */
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public long skip(long n) {
+      int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(bytes, off, n);
+      return n;
+    }
+  }
+
+}
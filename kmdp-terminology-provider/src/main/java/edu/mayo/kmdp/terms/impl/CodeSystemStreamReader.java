@@ -0,0 +1,181 @@
+package edu.mayo.kmdp.terms.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * Streaming reader of (FHIR STU3, JSON-serialized) CodeSystem resources, which maps the (top
+ * level) concepts of a CodeSystem to ConceptDescriptors as they are read, without materializing
+ * the CodeSystem itself.
+ * <p>
+ * Only the elements needed to build the descriptors are read: the url and version of the
+ * CodeSystem, and the code, display, definition and designations of each concept. Designations
+ * without a use are skipped, since designations are keyed by the code of their use. Concepts that
+ * precede the url or version in the serialization are buffered until the end of the resource
+ */
+public class CodeSystemStreamReader {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Maps the elements of a concept to a ConceptDescriptor
+   */
+  @FunctionalInterface
+  public interface ConceptMapper {
+
+    ConceptDescriptor toDescriptor(String url, String version,
+        String code, String display, String definition, Map<String, String> designations);
+  }
+
+  private final ConceptMapper mapper;
+
+  public CodeSystemStreamReader(ConceptMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  /**
+   * Reads the concepts of a CodeSystem
+   *
+   * @param in the serialized CodeSystem
+   * @return the descriptors of the concepts, in order
+   * @throws IOException if the stream cannot be read, or is not a JSON-serialized CodeSystem
+   */
+  public List<ConceptDescriptor> read(InputStream in) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+      return read(parser);
+    }
+  }
+
+  /**
+   * Reads the concepts of a CodeSystem
+   *
+   * @param in the serialized CodeSystem
+   * @return the descriptors of the concepts, in order
+   * @throws IOException if the reader fails, or the content is not a JSON-serialized CodeSystem
+   */
+  public List<ConceptDescriptor> read(Reader in) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+      return read(parser);
+    }
+  }
+
+  private List<ConceptDescriptor> read(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new IOException("Expected a CodeSystem resource");
+    }
+
+    String url = null;
+    String version = null;
+    List<ConceptDescriptor> descriptors = new ArrayList<>();
+    List<RawConcept> pending = new ArrayList<>();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("resourceType".equals(field)) {
+        if (!"CodeSystem".equals(parser.getText())) {
+          throw new IOException("Expected a CodeSystem resource, found " + parser.getText());
+        }
+      } else if ("url".equals(field)) {
+        url = parser.getText();
+      } else if ("version".equals(field)) {
+        version = parser.getText();
+      } else if ("concept".equals(field) && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          RawConcept concept = readConcept(parser);
+          if (url != null && version != null) {
+            descriptors.add(concept.toDescriptor(url, version));
+          } else {
+            pending.add(concept);
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    for (RawConcept concept : pending) {
+      descriptors.add(concept.toDescriptor(url, version));
+    }
+    return descriptors;
+  }
+
+  private RawConcept readConcept(JsonParser parser) throws IOException {
+    RawConcept concept = new RawConcept();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("code".equals(field)) {
+        concept.code = parser.getText();
+      } else if ("display".equals(field)) {
+        concept.display = parser.getText();
+      } else if ("definition".equals(field)) {
+        concept.definition = parser.getText();
+      } else if ("designation".equals(field) && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          readDesignation(parser, concept.designations);
+        }
+      } else {
+        // includes the nested concepts, which are not indexed
+        parser.skipChildren();
+      }
+    }
+    return concept;
+  }
+
+  private void readDesignation(JsonParser parser, Map<String, String> designations)
+      throws IOException {
+    String use = null;
+    String designation = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("value".equals(field)) {
+        designation = parser.getText();
+      } else if ("use".equals(field) && value == JsonToken.START_OBJECT) {
+        use = readCode(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (use != null && designation != null) {
+      designations.put(use, designation);
+    }
+  }
+
+  private String readCode(JsonParser parser) throws IOException {
+    String code = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      if ("code".equals(field)) {
+        code = parser.getText();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return code;
+  }
+
+  private class RawConcept {
+
+    String code;
+    String display;
+    String definition;
+    final Map<String, String> designations = new HashMap<>();
+
+    ConceptDescriptor toDescriptor(String url, String version) {
+      return mapper.toDescriptor(url, version, code, display, definition, designations);
+    }
+  }
+
+}
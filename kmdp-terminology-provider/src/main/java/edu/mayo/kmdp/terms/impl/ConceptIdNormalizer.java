@@ -0,0 +1,115 @@
+package edu.mayo.kmdp.terms.impl;
+
+import edu.mayo.kmdp.util.NameUtils;
+import edu.mayo.kmdp.util.Util;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Normalizes Concept ids to the UUIDs used to index the Concepts.
+ * <p>
+ * Concept ids can be UUIDs, URIs that end with a UUID, or tags, whose (name-based) UUIDs are
+ * derived by hashing - which is comparatively expensive, and tends to be repeated for the same
+ * ids. Only the name-based UUIDs are memoized, since the others are simply parsed. The memo is
+ * bounded, and organized in two generations: when the current generation is full, it replaces
+ * the previous one, so that the ids in use are retained, while the others are eventually
+ * discarded
+ */
+public class ConceptIdNormalizer {
+
+  static final int DEFAULT_MAX_SIZE = 50_000;
+
+  private static final ConceptIdNormalizer SHARED = new ConceptIdNormalizer(DEFAULT_MAX_SIZE);
+
+  private final Memo nameBasedUUIDs;
+
+  ConceptIdNormalizer(int maxSize) {
+    this.nameBasedUUIDs = new Memo(maxSize, Util::uuid);
+  }
+
+  /**
+   * @return the normalizer shared by the terminology providers
+   */
+  public static ConceptIdNormalizer shared() {
+    return SHARED;
+  }
+
+  /**
+   * Maps a Concept id, which can be a UUID, a URI that ends with a UUID, or a tag, to the UUID
+   * used to index the Concept
+   *
+   * @param conceptId the Concept id
+   * @return the UUID of the Concept
+   */
+  public UUID toConceptUUID(String conceptId) {
+    return Util.ensureUUID(conceptId)
+        .or(() -> Util.ensureUUID(NameUtils.getTrailingPart(conceptId)))
+        .orElseGet(() -> nameBasedUUIDs.get(conceptId));
+  }
+
+  /**
+   * Maps a Concept id, which can be a UUID or a tag, to the UUID used to index the Concept
+   *
+   * @param conceptId the Concept id
+   * @return the UUID itself, or the name-based UUID derived from the id
+   */
+  public UUID toUUID(String conceptId) {
+    return Util.isUUID(conceptId)
+        ? Util.toUUID(conceptId)
+        : nameBasedUUIDs.get(conceptId);
+  }
+
+  /**
+   * @return the number of memoized ids
+   */
+  int size() {
+    return nameBasedUUIDs.size();
+  }
+
+  private static final class Memo {
+
+    private final int maxSize;
+    private final Function<String, UUID> derivation;
+
+    private volatile Map<String, UUID> current = new ConcurrentHashMap<>();
+    private volatile Map<String, UUID> previous = new ConcurrentHashMap<>();
+
+    Memo(int maxSize, Function<String, UUID> derivation) {
+      this.maxSize = maxSize;
+      this.derivation = derivation;
+    }
+
+    UUID get(String id) {
+      if (id == null) {
+        return derivation.apply(null);
+      }
+      UUID uuid = current.get(id);
+      if (uuid != null) {
+        return uuid;
+      }
+      uuid = previous.get(id);
+      if (uuid == null) {
+        uuid = derivation.apply(id);
+      }
+      if (current.size() >= maxSize) {
+        rotate();
+      }
+      current.put(id, uuid);
+      return uuid;
+    }
+
+    int size() {
+      return current.size() + previous.size();
+    }
+
+    private synchronized void rotate() {
+      if (current.size() >= maxSize) {
+        previous = current;
+        current = new ConcurrentHashMap<>();
+      }
+    }
+  }
+
+}
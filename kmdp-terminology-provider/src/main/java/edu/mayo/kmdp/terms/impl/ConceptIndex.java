@@ -0,0 +1,133 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * A compact, immutable map from (alias) Concept UUIDs to the ConceptDescriptors of a
+ * TerminologyScheme.
+ * <p>
+ * Keys are stored as the two 64-bit halves of the UUID in an open-addressing table with linear
+ * probing, and each slot refers to a position in a single array of (distinct) descriptors, which
+ * is shared by all the aliases of a Concept
+ */
+public class ConceptIndex {
+
+  private static final int EMPTY = -1;
+
+  private final long[] msbs;
+  private final long[] lsbs;
+
+  /**
+   * The position of the value of each slot in the values array, or EMPTY
+   */
+  private final int[] positions;
+
+  private final ConceptDescriptor[] values;
+
+  private final int mask;
+
+  private int size;
+
+  private ConceptIndex(int expectedKeys, ConceptDescriptor[] values) {
+    int capacity = Integer.highestOneBit(Math.max(2, expectedKeys) * 2 - 1) << 1;
+    this.msbs = new long[capacity];
+    this.lsbs = new long[capacity];
+    this.positions = new int[capacity];
+    Arrays.fill(positions, EMPTY);
+    this.values = values;
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Indexes the given descriptors under each of their keys. Should more than one descriptor share
+   * a key, the last one prevails
+   *
+   * @param descriptors the (distinct) descriptors
+   * @param keys        maps a descriptor to the keys it should be indexed by
+   * @return the index
+   */
+  public static ConceptIndex of(List<ConceptDescriptor> descriptors,
+      Function<ConceptDescriptor, UUID[]> keys) {
+    ConceptDescriptor[] values = descriptors.toArray(new ConceptDescriptor[0]);
+    UUID[][] valueKeys = new UUID[values.length][];
+    int numKeys = 0;
+    for (int j = 0; j < values.length; j++) {
+      valueKeys[j] = keys.apply(values[j]);
+      numKeys += valueKeys[j].length;
+    }
+
+    ConceptIndex index = new ConceptIndex(numKeys, values);
+    for (int j = 0; j < values.length; j++) {
+      for (UUID key : valueKeys[j]) {
+        index.put(key, j);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * @param key the UUID of a Concept, or an alias thereof
+   * @return the descriptor of the Concept, or null if not indexed
+   */
+  public ConceptDescriptor get(UUID key) {
+    if (key == null) {
+      return null;
+    }
+    long msb = key.getMostSignificantBits();
+    long lsb = key.getLeastSignificantBits();
+    for (int slot = slotOf(msb, lsb); positions[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (msbs[slot] == msb && lsbs[slot] == lsb) {
+        return values[positions[slot]];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of keys in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Applies an action to each (key, descriptor) pair in the index
+   *
+   * @param action the action
+   */
+  public void forEach(BiConsumer<UUID, ConceptDescriptor> action) {
+    for (int slot = 0; slot < positions.length; slot++) {
+      if (positions[slot] != EMPTY) {
+        action.accept(new UUID(msbs[slot], lsbs[slot]), values[positions[slot]]);
+      }
+    }
+  }
+
+  private void put(UUID key, int position) {
+    long msb = key.getMostSignificantBits();
+    long lsb = key.getLeastSignificantBits();
+    int slot = slotOf(msb, lsb);
+    while (positions[slot] != EMPTY) {
+      if (msbs[slot] == msb && lsbs[slot] == lsb) {
+        positions[slot] = position;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    msbs[slot] = msb;
+    lsbs[slot] = lsb;
+    positions[slot] = position;
+    size++;
+  }
+
+  private int slotOf(long msb, long lsb) {
+    long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+}
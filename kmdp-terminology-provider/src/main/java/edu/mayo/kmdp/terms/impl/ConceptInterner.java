@@ -0,0 +1,219 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * Canonicalizes ConceptDescriptors, so that the descriptors (and the names, labels, namespace
+ * URIs and ancestor arrays thereof) that are identical across the versions of a terminology, and
+ * across the terminology providers, are shared rather than duplicated.
+ * <p>
+ * Descriptors are canonicalized bottom-up: the components of a descriptor are interned first, so
+ * that descriptors can then be compared by value on their scalar fields, and by identity on their
+ * (canonical) components. The given descriptors are never modified: canonical descriptors are
+ * (interned) copies, which must not be modified any further. Descriptors that are involved in a
+ * cycle of ancestor relationships are copied, but not pooled, so that a canonical descriptor never
+ * refers to a non-canonical one
+ */
+public class ConceptInterner {
+
+  private static final ConceptInterner SHARED = new ConceptInterner();
+
+  private static final Term[] NO_TERMS = new Term[0];
+
+  private final WeakInterner<String> strings =
+      new WeakInterner<>(String::hashCode, String::equals);
+
+  private final WeakInterner<URI> uris =
+      new WeakInterner<>(URI::hashCode, URI::equals);
+
+  private final WeakInterner<Map<String, String>> labels =
+      new WeakInterner<>(Map::hashCode, Map::equals);
+
+  private final WeakInterner<Term[]> termArrays =
+      new WeakInterner<>(ConceptInterner::identityHash, ConceptInterner::sameTerms);
+
+  private final WeakInterner<ConceptDescriptor> descriptors =
+      new WeakInterner<>(ConceptInterner::descriptorHash, ConceptInterner::sameDescriptor);
+
+  /**
+   * @return the interner shared by the terminology providers
+   */
+  public static ConceptInterner shared() {
+    return SHARED;
+  }
+
+  /**
+   * Canonicalizes a List of descriptors
+   *
+   * @param concepts the descriptors
+   * @return the canonical descriptors, in the same order
+   */
+  public List<ConceptDescriptor> internAll(List<ConceptDescriptor> concepts) {
+    Context context = new Context();
+    List<ConceptDescriptor> canonical = new ArrayList<>(concepts.size());
+    for (ConceptDescriptor cd : concepts) {
+      canonical.add(intern(cd, context));
+    }
+    return canonical;
+  }
+
+  /**
+   * Canonicalizes a descriptor, and the descriptors of its ancestors
+   *
+   * @param cd the descriptor
+   * @return the canonical descriptor
+   */
+  public ConceptDescriptor intern(ConceptDescriptor cd) {
+    return intern(cd, new Context());
+  }
+
+  private ConceptDescriptor intern(ConceptDescriptor cd, Context context) {
+    if (cd == null) {
+      return null;
+    }
+    ConceptDescriptor canonical = context.done.get(cd);
+    if (canonical != null) {
+      return canonical;
+    }
+    if (descriptors.isCanonical(cd)) {
+      context.done.put(cd, cd);
+      return cd;
+    }
+
+    ConceptDescriptor copy = new ConceptDescriptor()
+        .withUuid(cd.getUuid())
+        .withTag(strings.intern(cd.getTag()))
+        .withName(strings.intern(cd.getName()))
+        .withResourceId(cd.getResourceId())
+        .withVersionTag(strings.intern(cd.getVersionTag()))
+        .withVersionId(cd.getVersionId())
+        .withNamespaceUri(uris.intern(cd.getNamespaceUri()))
+        .withReferentId(cd.getReferentId())
+        .withEstablishedOn(cd.getEstablishedOn())
+        .withLabels(labels.intern(cd.getLabels()));
+    // guards against cycles in the ancestor relationships
+    context.done.put(cd, copy);
+    context.pending.put(copy, copy);
+    copy.setAncestors(internTerms(cd.getAncestors(), context));
+    copy.setClosure(internTerms(cd.getClosure(), context));
+    context.pending.remove(copy);
+
+    if (context.isPoolable(copy.getAncestors()) && context.isPoolable(copy.getClosure())) {
+      canonical = descriptors.intern(copy);
+    } else {
+      canonical = copy;
+      context.unpooled.put(copy, copy);
+    }
+    context.done.put(cd, canonical);
+    return canonical;
+  }
+
+  private Term[] internTerms(Term[] terms, Context context) {
+    if (terms == null) {
+      return null;
+    }
+    if (terms.length == 0) {
+      return NO_TERMS;
+    }
+    Term[] canonicalTerms = new Term[terms.length];
+    for (int j = 0; j < terms.length; j++) {
+      canonicalTerms[j] = terms[j] instanceof ConceptDescriptor
+          ? intern((ConceptDescriptor) terms[j], context)
+          : terms[j];
+    }
+    return termArrays.intern(canonicalTerms);
+  }
+
+  /**
+   * @return the number of canonical descriptors currently in use
+   */
+  public int size() {
+    return descriptors.size();
+  }
+
+  /**
+   * Tracks the descriptors interned by the same (batch) request
+   */
+  private static final class Context {
+
+    /**
+     * The canonical (or, while pending, the copy of) each given descriptor
+     */
+    final Map<ConceptDescriptor, ConceptDescriptor> done = new IdentityHashMap<>();
+
+    /**
+     * The copies whose ancestors are being interned
+     */
+    final Map<ConceptDescriptor, ConceptDescriptor> pending = new IdentityHashMap<>();
+
+    /**
+     * The copies that have not been pooled, because of a cycle
+     */
+    final Map<ConceptDescriptor, ConceptDescriptor> unpooled = new IdentityHashMap<>();
+
+    boolean isPoolable(Term[] terms) {
+      if (terms == null) {
+        return true;
+      }
+      for (Term t : terms) {
+        if (pending.containsKey(t) || unpooled.containsKey(t)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static int identityHash(Term[] terms) {
+    int hash = 1;
+    for (Term t : terms) {
+      hash = 31 * hash + System.identityHashCode(t);
+    }
+    return hash;
+  }
+
+  private static boolean sameTerms(Term[] t1, Term[] t2) {
+    if (t1.length != t2.length) {
+      return false;
+    }
+    for (int j = 0; j < t1.length; j++) {
+      if (t1[j] != t2[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int descriptorHash(ConceptDescriptor cd) {
+    return Objects.hash(cd.getUuid(), cd.getVersionTag(), cd.getName(), cd.getTag(),
+        System.identityHashCode(cd.getLabels()),
+        System.identityHashCode(cd.getAncestors()),
+        System.identityHashCode(cd.getClosure()));
+  }
+
+  /**
+   * Compares two descriptors whose components have already been interned
+   */
+  private static boolean sameDescriptor(ConceptDescriptor cd1, ConceptDescriptor cd2) {
+    return Objects.equals(cd1.getUuid(), cd2.getUuid())
+        && Objects.equals(cd1.getTag(), cd2.getTag())
+        && Objects.equals(cd1.getName(), cd2.getName())
+        && Objects.equals(cd1.getResourceId(), cd2.getResourceId())
+        && Objects.equals(cd1.getVersionTag(), cd2.getVersionTag())
+        && Objects.equals(cd1.getVersionId(), cd2.getVersionId())
+        && Objects.equals(cd1.getReferentId(), cd2.getReferentId())
+        && Objects.equals(cd1.getEstablishedOn(), cd2.getEstablishedOn())
+        && cd1.getNamespaceUri() == cd2.getNamespaceUri()
+        && cd1.getLabels() == cd2.getLabels()
+        && cd1.getAncestors() == cd2.getAncestors()
+        && cd1.getClosure() == cd2.getClosure();
+  }
+
+}
@@ -0,0 +1,122 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * An in-memory, token-based index over the names and designations (labels) of the Concepts of a
+ * TerminologyScheme.
+ * <p>
+ * Labels are split into case-insensitive tokens, which are kept sorted, so that the Concepts
+ * matching a (multi-token) label filter can be found by prefix, with range queries over the
+ * tokens rather than a scan over the Concepts
+ */
+public class LabelIndex {
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /**
+   * The indexed Concepts, in their original order (unmodifiable)
+   */
+  private final List<ConceptDescriptor> concepts;
+
+  /**
+   * Maps each label token to the (sorted) positions of the Concepts with that token
+   */
+  private final NavigableMap<String, int[]> tokens;
+
+  private LabelIndex(List<ConceptDescriptor> concepts, NavigableMap<String, int[]> tokens) {
+    this.concepts = concepts;
+    this.tokens = tokens;
+  }
+
+  /**
+   * Builds an index over the names and labels of the given Concepts
+   *
+   * @param concepts the (distinct) Concepts of a TerminologyScheme
+   * @return the index
+   */
+  public static LabelIndex of(List<ConceptDescriptor> concepts) {
+    NavigableMap<String, BitSet> postings = new TreeMap<>();
+    for (int j = 0; j < concepts.size(); j++) {
+      ConceptDescriptor cd = concepts.get(j);
+      indexLabel(cd.getName(), j, postings);
+      if (cd.getLabels() != null) {
+        for (String label : cd.getLabels().values()) {
+          indexLabel(label, j, postings);
+        }
+      }
+    }
+
+    NavigableMap<String, int[]> tokens = new TreeMap<>();
+    for (Map.Entry<String, BitSet> posting : postings.entrySet()) {
+      tokens.put(posting.getKey(), posting.getValue().stream().toArray());
+    }
+    return new LabelIndex(Collections.unmodifiableList(new ArrayList<>(concepts)), tokens);
+  }
+
+  /**
+   * Returns the Concepts whose labels match the given filter. Each token in the filter must be
+   * the prefix of (at least) one token in the name or designations of a matching Concept.
+   *
+   * @param labelFilter the filter; if null or empty, all the Concepts will be returned
+   * @return the matching Concepts, in their original order, as an unmodifiable List
+   */
+  public List<ConceptDescriptor> filter(String labelFilter) {
+    List<String> query = tokenize(labelFilter);
+    if (query.isEmpty()) {
+      return concepts;
+    }
+
+    BitSet matches = null;
+    for (String token : query) {
+      BitSet tokenMatches = new BitSet(concepts.size());
+      for (int[] positions :
+          tokens.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+        for (int j : positions) {
+          tokenMatches.set(j);
+        }
+      }
+      if (matches == null) {
+        matches = tokenMatches;
+      } else {
+        matches.and(tokenMatches);
+      }
+      if (matches.isEmpty()) {
+        return Collections.emptyList();
+      }
+    }
+
+    List<ConceptDescriptor> filtered = new ArrayList<>(matches.cardinality());
+    matches.stream().forEach(j -> filtered.add(concepts.get(j)));
+    return Collections.unmodifiableList(filtered);
+  }
+
+  private static void indexLabel(String label, int position, Map<String, BitSet> postings) {
+    for (String token : tokenize(label)) {
+      postings.computeIfAbsent(token, k -> new BitSet()).set(position);
+    }
+  }
+
+  private static List<String> tokenize(String label) {
+    if (label == null || label.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> tokens = new ArrayList<>();
+    for (String token : TOKEN_SEPARATOR.split(label.toLowerCase(Locale.ROOT))) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+}
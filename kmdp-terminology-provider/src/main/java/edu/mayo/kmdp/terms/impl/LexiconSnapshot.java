@@ -0,0 +1,184 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readDate;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readDescriptor;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readString;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readURI;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.readUUID;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeDate;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeDescriptor;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeString;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeURI;
+import static edu.mayo.kmdp.terms.impl.ConceptDescriptorCodec.writeUUID;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.omg.spec.api4kp._20200801.id.Pointer;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * A local, binary (gzipped) snapshot of the content indexed from a set of Lexicon assets, which
+ * allows a FHIR-based terms provider to start serving before (re)connecting to its KARS
+ */
+public final class LexiconSnapshot {
+
+  private static final int MAGIC = 0x4B54534E;
+  private static final int FORMAT_VERSION = 2;
+
+  private LexiconSnapshot() {
+    // static functions only
+  }
+
+  /**
+   * The content indexed from one Lexicon asset. The concepts are null if the asset has no
+   * (CodeSystem) artifact
+   */
+  public static class Entry {
+
+    private final UUID assetUuid;
+    private final String assetVersionTag;
+    private final Pointer schemePointer;
+    private final List<ConceptDescriptor> concepts;
+
+    public Entry(UUID assetUuid, String assetVersionTag,
+        Pointer schemePointer, List<ConceptDescriptor> concepts) {
+      this.assetUuid = assetUuid;
+      this.assetVersionTag = assetVersionTag;
+      this.schemePointer = schemePointer;
+      this.concepts = concepts;
+    }
+
+    public UUID getAssetUuid() {
+      return assetUuid;
+    }
+
+    public String getAssetVersionTag() {
+      return assetVersionTag;
+    }
+
+    public Pointer getSchemePointer() {
+      return schemePointer;
+    }
+
+    public List<ConceptDescriptor> getConcepts() {
+      return concepts;
+    }
+  }
+
+  /**
+   * Writes a snapshot. The snapshot is written to a temporary file first, which then replaces the
+   * previous snapshot, if any
+   *
+   * @param path    the location of the snapshot
+   * @param entries the content of the snapshot
+   * @throws IOException if the snapshot could not be written
+   */
+  public static void write(Path path, Collection<Entry> entries) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(entries.size());
+      for (Entry entry : entries) {
+        writeUUID(entry.getAssetUuid(), out);
+        writeString(entry.getAssetVersionTag(), out);
+        writePointer(entry.getSchemePointer(), out);
+        List<ConceptDescriptor> concepts = entry.getConcepts();
+        out.writeInt(concepts != null ? concepts.size() : -1);
+        if (concepts != null) {
+          for (ConceptDescriptor cd : concepts) {
+            writeDescriptor(cd, out);
+          }
+        }
+      }
+    }
+
+    try {
+      Files.move(tmp, path,
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Reads a snapshot, as written by {@link #write(Path, Collection)}
+   *
+   * @param path the location of the snapshot
+   * @return the content of the snapshot, or an empty List if there is no snapshot
+   * @throws IOException if the snapshot exists, but could not be read
+   */
+  public static List<Entry> read(Path path) throws IOException {
+    if (!Files.isRegularFile(path)) {
+      return Collections.emptyList();
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(Files.newInputStream(path))))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unrecognized snapshot format " + path);
+      }
+      int numEntries = in.readInt();
+      List<Entry> entries = new ArrayList<>(numEntries);
+      for (int j = 0; j < numEntries; j++) {
+        UUID assetUuid = readUUID(in);
+        String assetVersionTag = readString(in);
+        Pointer schemePointer = readPointer(in);
+        int numConcepts = in.readInt();
+        List<ConceptDescriptor> concepts = numConcepts >= 0 ? new ArrayList<>(numConcepts) : null;
+        for (int k = 0; k < numConcepts; k++) {
+          concepts.add(readDescriptor(in));
+        }
+        entries.add(new Entry(assetUuid, assetVersionTag, schemePointer, concepts));
+      }
+      return entries;
+    }
+  }
+
+  private static void writePointer(Pointer ptr, DataOutputStream out) throws IOException {
+    writeUUID(ptr.getUuid(), out);
+    writeString(ptr.getTag(), out);
+    writeString(ptr.getVersionTag(), out);
+    writeURI(ptr.getResourceId(), out);
+    writeURI(ptr.getVersionId(), out);
+    writeURI(ptr.getNamespaceUri(), out);
+    writeDate(ptr.getEstablishedOn(), out);
+    writeString(ptr.getName(), out);
+    writeURI(ptr.getType(), out);
+    writeString(ptr.getMimeType(), out);
+  }
+
+  private static Pointer readPointer(DataInputStream in) throws IOException {
+    return new Pointer()
+        .withUuid(readUUID(in))
+        .withTag(readString(in))
+        .withVersionTag(readString(in))
+        .withResourceId(readURI(in))
+        .withVersionId(readURI(in))
+        .withNamespaceUri(readURI(in))
+        .withEstablishedOn(readDate(in))
+        .withName(readString(in))
+        .withType(readURI(in))
+        .withMimeType(readString(in));
+  }
+
+}
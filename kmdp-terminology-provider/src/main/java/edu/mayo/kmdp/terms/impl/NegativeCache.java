@@ -0,0 +1,128 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of the keys known to have no value, e.g. the Concepts that could not be found
+ * by any terminology provider.
+ * <p>
+ * Entries expire after a time-to-live, and the oldest entries are evicted first once the cache is
+ * full. Entries can also be tagged with the generation of the content they were derived from:
+ * the cache is cleared as soon as a newer generation is seen, and entries of older generations are
+ * not added, so that a miss recorded while the content changes does not outlive the change
+ */
+public class NegativeCache {
+
+  private final long ttlNanos;
+  private final int maxSize;
+  private final LongSupplier clock;
+
+  /**
+   * The expiration time of each key, in insertion order
+   */
+  private final LinkedHashMap<Object, Long> expirations;
+
+  /**
+   * The latest generation seen
+   */
+  private long generation;
+
+  public NegativeCache(long ttl, TimeUnit unit, int maxSize) {
+    this(ttl, unit, maxSize, System::nanoTime);
+  }
+
+  NegativeCache(long ttl, TimeUnit unit, int maxSize, LongSupplier clock) {
+    this.ttlNanos = unit.toNanos(ttl);
+    this.maxSize = maxSize;
+    this.clock = clock;
+    this.expirations = new LinkedHashMap<Object, Long>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+        return size() > NegativeCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return true if the cache holds any entry at all, i.e. has a positive TTL and size
+   */
+  public boolean isEnabled() {
+    return ttlNanos > 0 && maxSize > 0;
+  }
+
+  /**
+   * @param key a key
+   * @return true if the key is known to have no value, and the information has not expired yet
+   */
+  public synchronized boolean contains(Object key) {
+    return contains(key, generation);
+  }
+
+  /**
+   * @param key        a key
+   * @param generation the current generation of the content
+   * @return true if the key is known to have no value in that generation, and the information has
+   * not expired yet
+   */
+  public synchronized boolean contains(Object key, long generation) {
+    advance(generation);
+    if (!isEnabled() || generation < this.generation) {
+      return false;
+    }
+    Long expiration = expirations.get(key);
+    if (expiration == null) {
+      return false;
+    }
+    if (clock.getAsLong() - expiration >= 0) {
+      expirations.remove(key);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Records that a key has no value
+   *
+   * @param key a key
+   */
+  public synchronized void add(Object key) {
+    add(key, generation);
+  }
+
+  /**
+   * Records that a key has no value, unless the generation it was found missing in is outdated
+   *
+   * @param key        a key
+   * @param generation the generation of the content the key was found missing in
+   */
+  public synchronized void add(Object key, long generation) {
+    advance(generation);
+    if (isEnabled() && generation == this.generation) {
+      // re-insert, so that the entry moves to the end of the eviction order
+      expirations.remove(key);
+      expirations.put(key, clock.getAsLong() + ttlNanos);
+    }
+  }
+
+  /**
+   * Removes all the entries
+   */
+  public synchronized void clear() {
+    expirations.clear();
+  }
+
+  public synchronized int size() {
+    return expirations.size();
+  }
+
+  private void advance(long newGeneration) {
+    if (newGeneration > generation) {
+      expirations.clear();
+      generation = newGeneration;
+    }
+  }
+
+}
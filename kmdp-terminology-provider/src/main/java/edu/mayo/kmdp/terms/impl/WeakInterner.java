@@ -0,0 +1,186 @@
+package edu.mayo.kmdp.terms.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A pool of canonical instances, under a pluggable notion of equivalence.
+ * <p>
+ * Canonical instances are only weakly referenced, so that the pool does not retain instances
+ * that are no longer in use (e.g. the Concepts of a Lexicon that has been reindexed). The pool is
+ * backed by a ConcurrentHashMap, keyed by (weak references to) the canonical instances, so that
+ * concurrent reindexes do not contend on a single lock
+ *
+ * @param <T> the type of the pooled instances
+ */
+class WeakInterner<T> {
+
+  private final ToIntFunction<T> hasher;
+  private final BiPredicate<T, T> equivalence;
+
+  private final ConcurrentMap<Key<T>, Entry<T>> pool = new ConcurrentHashMap<>();
+  private final ReferenceQueue<T> expunged = new ReferenceQueue<>();
+
+  WeakInterner(ToIntFunction<T> hasher, BiPredicate<T, T> equivalence) {
+    this.hasher = hasher;
+    this.equivalence = equivalence;
+  }
+
+  /**
+   * @param value an instance
+   * @return the canonical instance equivalent to the given one - which becomes canonical if no
+   * equivalent instance is pooled
+   */
+  T intern(T value) {
+    if (value == null) {
+      return null;
+    }
+    expungeStaleEntries();
+
+    int hash = hasher.applyAsInt(value);
+    T canonical = lookup(value, hash);
+    while (canonical == null) {
+      Entry<T> entry = new Entry<>(value, hash, this, expunged);
+      Entry<T> existing = pool.putIfAbsent(entry, entry);
+      // an existing entry may have been cleared in the meantime, in which case we try again
+      canonical = existing == null ? value : existing.get();
+    }
+    return canonical;
+  }
+
+  /**
+   * @param value an instance
+   * @return true if the instance is the canonical one, i.e. it has been interned before
+   */
+  boolean isCanonical(T value) {
+    return value != null && lookup(value, hasher.applyAsInt(value)) == value;
+  }
+
+  int size() {
+    expungeStaleEntries();
+    return pool.size();
+  }
+
+  private T lookup(T value, int hash) {
+    Entry<T> entry = pool.get(new Lookup<>(value, hash, this));
+    return entry != null ? entry.get() : null;
+  }
+
+  private void expungeStaleEntries() {
+    Reference<? extends T> ref;
+    while ((ref = expunged.poll()) != null) {
+      // stale entries are only equal to themselves
+      pool.remove(ref);
+    }
+  }
+
+  /**
+   * A key in the pool, which is equal to the keys of equivalent instances
+   */
+  private interface Key<T> {
+
+    T value();
+
+    int hash();
+
+    WeakInterner<T> interner();
+
+    static <T> boolean equivalent(Key<T> k1, Object o) {
+      if (k1 == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      @SuppressWarnings("unchecked")
+      Key<T> k2 = (Key<T>) o;
+      if (k1.hash() != k2.hash() || k1.interner() != k2.interner()) {
+        return false;
+      }
+      T v1 = k1.value();
+      T v2 = k2.value();
+      return v1 != null && v2 != null && k1.interner().equivalence.test(v1, v2);
+    }
+  }
+
+  private static final class Entry<T> extends WeakReference<T> implements Key<T> {
+
+    private final int hash;
+    private final WeakInterner<T> interner;
+
+    Entry(T referent, int hash, WeakInterner<T> interner, ReferenceQueue<T> queue) {
+      super(referent, queue);
+      this.hash = hash;
+      this.interner = interner;
+    }
+
+    @Override
+    public T value() {
+      return get();
+    }
+
+    @Override
+    public int hash() {
+      return hash;
+    }
+
+    @Override
+    public WeakInterner<T> interner() {
+      return interner;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return Key.equivalent(this, o);
+    }
+  }
+
+  private static final class Lookup<T> implements Key<T> {
+
+    private final T value;
+    private final int hash;
+    private final WeakInterner<T> interner;
+
+    Lookup(T value, int hash, WeakInterner<T> interner) {
+      this.value = value;
+      this.hash = hash;
+      this.interner = interner;
+    }
+
+    @Override
+    public T value() {
+      return value;
+    }
+
+    @Override
+    public int hash() {
+      return hash;
+    }
+
+    @Override
+    public WeakInterner<T> interner() {
+      return interner;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return Key.equivalent(this, o);
+    }
+  }
+
+}
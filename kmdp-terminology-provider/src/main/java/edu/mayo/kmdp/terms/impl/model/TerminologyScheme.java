@@ -1,6 +1,10 @@
 package edu.mayo.kmdp.terms.impl.model;
 
+import edu.mayo.kmdp.terms.impl.AncestorClosure;
+import edu.mayo.kmdp.terms.impl.ConceptIndex;
+import edu.mayo.kmdp.terms.impl.LabelIndex;
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
@@ -42,6 +46,11 @@ public class TerminologyScheme {
    */
   private String version;
 
+  /**
+   * A sortable, epoch-based key derived from the version of the terminology Scheme
+   */
+  private long versionKey;
+
   /**
    * The fully qualified and versioned URI of the terminology Scheme
    */
@@ -53,9 +62,34 @@ public class TerminologyScheme {
   private URI seriesId;
 
   /**
-   * The terms found in the terminology Scheme
+   * The terms found in the terminology Scheme, indexed by UUID and aliases
+   */
+  private ConceptIndex terms;
+
+  /**
+   * The (distinct) terms found in the terminology Scheme, as an immutable List
    */
-  private Map<UUID, ConceptDescriptor> terms;
+  private List<ConceptDescriptor> termList;
+
+  /**
+   * An index over the labels of the terms, used to filter the terms by label
+   */
+  private LabelIndex labelIndex;
+
+  /**
+   * The transitive closure of the ancestor relationships between the terms
+   */
+  private AncestorClosure ancestorClosure;
+
+  /**
+   * The (immutable) descriptors of the direct ancestors of each term, indexed by the term UUID
+   */
+  private Map<UUID, List<ConceptDescriptor>> ancestorDescriptors;
+
+  /**
+   * Set once the terms (and the indexes over the terms) have been materialized
+   */
+  private volatile boolean materialized;
 
   public UUID getKey() {
     return key;
@@ -89,6 +123,14 @@ public class TerminologyScheme {
     this.version = version;
   }
 
+  public long getVersionKey() {
+    return versionKey;
+  }
+
+  public void setVersionKey(long versionKey) {
+    this.versionKey = versionKey;
+  }
+
   public String getSchemeId() {
     return schemeId;
   }
@@ -105,14 +147,54 @@ public class TerminologyScheme {
     this.seriesId = seriesId;
   }
 
-  public Map<UUID, ConceptDescriptor> getTerms() {
+  public ConceptIndex getTerms() {
     return terms;
   }
 
-  public void setTerms(Map<UUID, ConceptDescriptor> terms) {
+  public void setTerms(ConceptIndex terms) {
     this.terms = terms;
   }
 
+  public List<ConceptDescriptor> getTermList() {
+    return termList;
+  }
+
+  public void setTermList(List<ConceptDescriptor> termList) {
+    this.termList = termList;
+  }
+
+  public LabelIndex getLabelIndex() {
+    return labelIndex;
+  }
+
+  public void setLabelIndex(LabelIndex labelIndex) {
+    this.labelIndex = labelIndex;
+  }
+
+  public AncestorClosure getAncestorClosure() {
+    return ancestorClosure;
+  }
+
+  public void setAncestorClosure(AncestorClosure ancestorClosure) {
+    this.ancestorClosure = ancestorClosure;
+  }
+
+  public Map<UUID, List<ConceptDescriptor>> getAncestorDescriptors() {
+    return ancestorDescriptors;
+  }
+
+  public void setAncestorDescriptors(Map<UUID, List<ConceptDescriptor>> ancestorDescriptors) {
+    this.ancestorDescriptors = ancestorDescriptors;
+  }
+
+  public boolean isMaterialized() {
+    return materialized;
+  }
+
+  public void setMaterialized(boolean materialized) {
+    this.materialized = materialized;
+  }
+
   public TerminologyScheme() {
     super();
   }
@@ -0,0 +1,317 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link TermsMetrics} that keeps its counters and latency histograms in memory, using
+ * contention-friendly {@link LongAdder}s. Besides the cumulative latency of each operation, the
+ * latency over a rolling window (one minute, by default) is also tracked.
+ * <p>
+ * The metrics can be inspected directly, or exported to a metrics registry as (name, value) pairs
+ *
+ * @see #export(BiConsumer)
+ */
+public class InMemoryTermsMetrics implements TermsMetrics {
+
+  public static final String PREFIX = "terms";
+  public static final String UNRESOLVED = "none";
+
+  static final long DEFAULT_WINDOW_SECONDS = 60;
+
+  private final long windowMillis;
+
+  /**
+   * The statistics of the calls, by provider, then by operation
+   */
+  private final ConcurrentMap<String, ConcurrentMap<String, CallStats>> calls =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The statistics of the resolutions made by the broker, by operation
+   */
+  private final ConcurrentMap<String, ResolutionStats> resolutions = new ConcurrentHashMap<>();
+
+  public InMemoryTermsMetrics() {
+    this(DEFAULT_WINDOW_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * @param window the width of the rolling window the recent latencies are tracked over
+   * @param unit   the unit of the window
+   */
+  public InMemoryTermsMetrics(long window, TimeUnit unit) {
+    this.windowMillis = unit.toMillis(window);
+  }
+
+  @Override
+  public void recordCall(String provider, String operation, long elapsedNanos,
+      Outcome outcome) {
+    ConcurrentMap<String, CallStats> byOperation = calls.get(provider);
+    if (byOperation == null) {
+      byOperation = calls.computeIfAbsent(provider, p -> new ConcurrentHashMap<>());
+    }
+    CallStats stats = byOperation.get(operation);
+    if (stats == null) {
+      stats = byOperation.computeIfAbsent(operation, op -> new CallStats(windowMillis));
+    }
+    stats.record(elapsedNanos, outcome);
+  }
+
+  @Override
+  public void recordResolution(String operation, String answeredBy, int providersTried) {
+    ResolutionStats stats = resolutions.get(operation);
+    if (stats == null) {
+      stats = resolutions.computeIfAbsent(operation, op -> new ResolutionStats());
+    }
+    stats.record(answeredBy, providersTried);
+  }
+
+  /**
+   * @param provider  the name of a provider
+   * @param operation the name of an operation
+   * @return the statistics of the calls of that operation on that provider, if any
+   */
+  public CallStats getCallStats(String provider, String operation) {
+    Map<String, CallStats> byOperation = calls.get(provider);
+    return byOperation != null ? byOperation.get(operation) : null;
+  }
+
+  /**
+   * Estimates a percentile of the recent latency of a provider, over the rolling window, across
+   * one or more operations
+   *
+   * @param provider   the name of a provider
+   * @param operations the names of the operations
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated latency, in nanoseconds, or 0 if no such call has been made recently
+   */
+  public long getRecentPercentile(String provider, Collection<String> operations,
+      double percentile) {
+    Map<String, CallStats> byOperation = calls.get(provider);
+    if (byOperation == null) {
+      return 0;
+    }
+    List<RollingLatencyHistogram> histograms = new ArrayList<>();
+    for (String operation : operations) {
+      CallStats stats = byOperation.get(operation);
+      if (stats != null) {
+        histograms.add(stats.getRecentLatency());
+      }
+    }
+    return RollingLatencyHistogram.percentileOf(histograms, percentile);
+  }
+
+  /**
+   * Counts the recent calls of a provider, over the rolling window, across one or more operations
+   *
+   * @param provider   the name of a provider
+   * @param operations the names of the operations
+   * @return the number of such calls made recently
+   */
+  public long getRecentCount(String provider, Collection<String> operations) {
+    Map<String, CallStats> byOperation = calls.get(provider);
+    if (byOperation == null) {
+      return 0;
+    }
+    long count = 0;
+    for (String operation : operations) {
+      CallStats stats = byOperation.get(operation);
+      if (stats != null) {
+        count += stats.getRecentLatency().getCount();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the statistics of the calls, by provider, then by operation
+   */
+  public Map<String, Map<String, CallStats>> getCallStats() {
+    return Collections.unmodifiableMap(calls);
+  }
+
+  /**
+   * @param operation the name of an operation
+   * @return the statistics of the resolutions of that operation by the broker, if any
+   */
+  public ResolutionStats getResolutionStats(String operation) {
+    return resolutions.get(operation);
+  }
+
+  /**
+   * @return the statistics of the resolutions made by the broker, by operation
+   */
+  public Map<String, ResolutionStats> getResolutionStats() {
+    return Collections.unmodifiableMap(resolutions);
+  }
+
+  /**
+   * Exports the current value of each metric, e.g. as a gauge of a metrics registry. Names are
+   * dot-separated, and latencies are in nanoseconds:
+   * <ul>
+   *   <li>terms.calls.[provider].[operation].(count|hits|misses|failures|hitRatio)</li>
+   *   <li>terms.calls.[provider].[operation].latency.(mean|p50|p95|p99|max)</li>
+   *   <li>terms.calls.[provider].[operation].latency.recent.(p95|p99)</li>
+   *   <li>terms.resolutions.[operation].(count|fallthroughs|unresolved)</li>
+   *   <li>terms.resolutions.[operation].answeredBy.[provider]</li>
+   * </ul>
+   *
+   * @param registry accepts the name and value of each metric
+   */
+  public void export(BiConsumer<String, Number> registry) {
+    calls.forEach((provider, byOperation) -> byOperation.forEach((operation, stats) -> {
+      String name = PREFIX + ".calls." + provider + "." + operation;
+      registry.accept(name + ".count", stats.getCalls());
+      registry.accept(name + ".hits", stats.getHits());
+      registry.accept(name + ".misses", stats.getMisses());
+      registry.accept(name + ".failures", stats.getFailures());
+      registry.accept(name + ".hitRatio", stats.getHitRatio());
+      LatencyHistogram latency = stats.getLatency();
+      registry.accept(name + ".latency.mean", latency.getMean());
+      registry.accept(name + ".latency.p50", latency.getPercentile(50));
+      registry.accept(name + ".latency.p95", latency.getPercentile(95));
+      registry.accept(name + ".latency.p99", latency.getPercentile(99));
+      registry.accept(name + ".latency.max", latency.getMax());
+      registry.accept(name + ".latency.recent.p95", stats.getRecentLatency().getPercentile(95));
+      registry.accept(name + ".latency.recent.p99", stats.getRecentLatency().getPercentile(99));
+    }));
+    resolutions.forEach((operation, stats) -> {
+      String name = PREFIX + ".resolutions." + operation;
+      registry.accept(name + ".count", stats.getResolutions());
+      registry.accept(name + ".fallthroughs", stats.getFallthroughs());
+      registry.accept(name + ".unresolved", stats.getAnsweredBy(UNRESOLVED));
+      stats.answeredBy.forEach((provider, count) -> {
+        if (!UNRESOLVED.equals(provider)) {
+          registry.accept(name + ".answeredBy." + provider, count.sum());
+        }
+      });
+    });
+  }
+
+  /**
+   * Forgets all the metrics recorded so far
+   */
+  public void clear() {
+    calls.clear();
+    resolutions.clear();
+  }
+
+  /**
+   * The statistics of the calls of one operation on one provider
+   */
+  public static class CallStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final RollingLatencyHistogram recentLatency;
+
+    CallStats(long windowMillis) {
+      this.recentLatency = new RollingLatencyHistogram(windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void record(long elapsedNanos, Outcome outcome) {
+      latency.record(elapsedNanos);
+      recentLatency.record(elapsedNanos);
+      switch (outcome) {
+        case HIT:
+          hits.increment();
+          break;
+        case MISS:
+          misses.increment();
+          break;
+        default:
+          failures.increment();
+      }
+    }
+
+    public long getCalls() {
+      return hits.sum() + misses.sum() + failures.sum();
+    }
+
+    public long getHits() {
+      return hits.sum();
+    }
+
+    public long getMisses() {
+      return misses.sum();
+    }
+
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    /**
+     * @return the ratio of the successful calls, or 0 if no call has been made
+     */
+    public double getHitRatio() {
+      long n = getCalls();
+      return n == 0 ? 0 : (double) getHits() / n;
+    }
+
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    /**
+     * @return the latency over the rolling window
+     */
+    public RollingLatencyHistogram getRecentLatency() {
+      return recentLatency;
+    }
+  }
+
+  /**
+   * The statistics of the resolutions of one operation by the broker
+   */
+  public static class ResolutionStats {
+
+    private final LongAdder resolutions = new LongAdder();
+    private final LongAdder fallthroughs = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> answeredBy = new ConcurrentHashMap<>();
+
+    void record(String provider, int providersTried) {
+      resolutions.increment();
+      if (providersTried > 1) {
+        fallthroughs.increment();
+      }
+      String key = provider != null ? provider : UNRESOLVED;
+      LongAdder count = answeredBy.get(key);
+      if (count == null) {
+        count = answeredBy.computeIfAbsent(key, k -> new LongAdder());
+      }
+      count.increment();
+    }
+
+    public long getResolutions() {
+      return resolutions.sum();
+    }
+
+    /**
+     * @return the number of resolutions that had to consider more than one provider
+     */
+    public long getFallthroughs() {
+      return fallthroughs.sum();
+    }
+
+    /**
+     * @param provider the name of a provider, or {@link #UNRESOLVED}
+     * @return the number of resolutions answered by that provider
+     */
+    public long getAnsweredBy(String provider) {
+      LongAdder count = answeredBy.get(provider);
+      return count != null ? count.sum() : 0;
+    }
+  }
+
+}
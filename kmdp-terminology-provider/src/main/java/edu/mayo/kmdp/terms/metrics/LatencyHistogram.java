@@ -0,0 +1,144 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies, in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is split into 8 sub-buckets, so
+ * that the percentiles are reported with a relative error of at most 12.5%, using a fixed (and
+ * small) number of counters
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+  private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  public LatencyHistogram() {
+    for (int j = 0; j < NUM_BUCKETS; j++) {
+      buckets[j] = new LongAdder();
+    }
+  }
+
+  /**
+   * @param nanos a latency, in nanoseconds. Negative values are counted as 0
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    buckets[bucketOf(value)].increment();
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * @return the mean latency, in nanoseconds, or 0 if nothing has been recorded
+   */
+  public double getMean() {
+    long n = count.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * @return the maximum latency, in nanoseconds
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Estimates a percentile, as the upper bound of the bucket the percentile falls in
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated latency, in nanoseconds, or 0 if nothing has been recorded
+   */
+  public long getPercentile(double percentile) {
+    long[] counts = new long[NUM_BUCKETS];
+    addCountsTo(counts);
+    return percentileOf(counts, percentile, getMax());
+  }
+
+  /**
+   * Forgets the values recorded so far. Values recorded concurrently may or may not be retained
+   */
+  void reset() {
+    for (LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+    count.reset();
+    sum.reset();
+    max.reset();
+  }
+
+  /**
+   * Adds the count of each bucket to the given (per bucket) totals
+   *
+   * @param counts the totals, one per bucket
+   */
+  void addCountsTo(long[] counts) {
+    for (int j = 0; j < NUM_BUCKETS; j++) {
+      counts[j] += buckets[j].sum();
+    }
+  }
+
+  static long[] newCounts() {
+    return new long[NUM_BUCKETS];
+  }
+
+  /**
+   * Estimates a percentile, as the upper bound of the bucket the percentile falls in
+   *
+   * @param counts     the count of each bucket
+   * @param percentile the percentile, between 0 and 100
+   * @param max        the maximum value counted
+   * @return the estimated value, or 0 if nothing has been counted
+   */
+  static long percentileOf(long[] counts, double percentile, long max) {
+    long total = 0;
+    for (long c : counts) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+    long seen = 0;
+    for (int j = 0; j < counts.length; j++) {
+      seen += counts[j];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(j), max);
+      }
+    }
+    return max;
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+    long lowerBound = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+}
@@ -0,0 +1,32 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import java.util.function.Supplier;
+import org.omg.spec.api4kp._20200801.Answer;
+
+/**
+ * The default {@link TermsMetrics}, which records nothing
+ */
+final class NoopTermsMetrics implements TermsMetrics {
+
+  static final NoopTermsMetrics INSTANCE = new NoopTermsMetrics();
+
+  private NoopTermsMetrics() {
+    // singleton
+  }
+
+  @Override
+  public void recordCall(String provider, String operation, long elapsedNanos,
+      Outcome outcome) {
+    // nothing to record
+  }
+
+  @Override
+  public void recordResolution(String operation, String answeredBy, int providersTried) {
+    // nothing to record
+  }
+
+  @Override
+  public <T> Answer<T> time(String provider, String operation, Supplier<Answer<T>> call) {
+    return call.get();
+  }
+}
@@ -0,0 +1,126 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A histogram of the latencies recorded over a rolling time window, in nanoseconds.
+ * <p>
+ * The window is split into a ring of slices, each a {@link LatencyHistogram}: a slice is reset
+ * when it is first written to after the window has moved past it. The percentiles are therefore
+ * estimated over the last (full) window, plus the current, partial slice. Values recorded while
+ * a slice is being reset may be lost, which is acceptable for monitoring purposes
+ */
+public class RollingLatencyHistogram {
+
+  static final int DEFAULT_SLICES = 6;
+
+  private final LatencyHistogram[] slices;
+
+  /**
+   * The (absolute) time slice each histogram currently holds the values of
+   */
+  private final AtomicLongArray epochs;
+
+  private final long sliceMillis;
+  private final LongSupplier clock;
+
+  /**
+   * @param window the width of the window
+   * @param unit   the unit of the window
+   */
+  public RollingLatencyHistogram(long window, TimeUnit unit) {
+    this(window, unit, DEFAULT_SLICES, System::currentTimeMillis);
+  }
+
+  RollingLatencyHistogram(long window, TimeUnit unit, int numSlices, LongSupplier clock) {
+    this.slices = new LatencyHistogram[numSlices];
+    this.epochs = new AtomicLongArray(numSlices);
+    for (int j = 0; j < numSlices; j++) {
+      slices[j] = new LatencyHistogram();
+      epochs.set(j, -1);
+    }
+    this.sliceMillis = Math.max(1, unit.toMillis(window) / numSlices);
+    this.clock = clock;
+  }
+
+  /**
+   * @param nanos a latency, in nanoseconds
+   */
+  public void record(long nanos) {
+    long epoch = clock.getAsLong() / sliceMillis;
+    int slot = (int) (epoch % slices.length);
+    long current = epochs.get(slot);
+    if (current < epoch && epochs.compareAndSet(slot, current, epoch)) {
+      slices[slot].reset();
+    }
+    slices[slot].record(nanos);
+  }
+
+  /**
+   * @return the number of values recorded within the window
+   */
+  public long getCount() {
+    long count = 0;
+    long epoch = clock.getAsLong() / sliceMillis;
+    for (int j = 0; j < slices.length; j++) {
+      if (isLive(j, epoch)) {
+        count += slices[j].getCount();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated latency, in nanoseconds, over the window, or 0 if nothing has been
+   * recorded
+   */
+  public long getPercentile(double percentile) {
+    return percentileOf(Collections.singletonList(this), percentile);
+  }
+
+  /**
+   * Estimates a percentile over the (current windows of) several histograms, e.g. to summarize
+   * the latency of several operations
+   *
+   * @param histograms the histograms
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated latency, in nanoseconds, or 0 if nothing has been recorded
+   */
+  public static long percentileOf(Collection<RollingLatencyHistogram> histograms,
+      double percentile) {
+    long[] counts = LatencyHistogram.newCounts();
+    long max = 0;
+    for (RollingLatencyHistogram histogram : histograms) {
+      max = Math.max(max, histogram.addLiveCountsTo(counts));
+    }
+    return LatencyHistogram.percentileOf(counts, percentile, max);
+  }
+
+  /**
+   * Adds the counts of the live slices to the given totals
+   *
+   * @return the maximum value recorded in the live slices
+   */
+  private long addLiveCountsTo(long[] counts) {
+    long max = 0;
+    long epoch = clock.getAsLong() / sliceMillis;
+    for (int j = 0; j < slices.length; j++) {
+      if (isLive(j, epoch)) {
+        slices[j].addCountsTo(counts);
+        max = Math.max(max, slices[j].getMax());
+      }
+    }
+    return max;
+  }
+
+  private boolean isLive(int slot, long epoch) {
+    long sliceEpoch = epochs.get(slot);
+    return sliceEpoch >= 0 && sliceEpoch > epoch - slices.length;
+  }
+
+}
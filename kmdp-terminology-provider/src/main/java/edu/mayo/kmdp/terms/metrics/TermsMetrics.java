@@ -0,0 +1,91 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import java.util.function.Supplier;
+import org.omg.spec.api4kp._20200801.Answer;
+
+/**
+ * Records the calls made on the terminology providers (and on the broker), and how the broker
+ * resolves its calls across the providers.
+ * <p>
+ * Implementations are expected to be thread safe and cheap, since they are invoked on every call.
+ * Deployments can plug in an implementation that forwards to their metrics registry of choice, or
+ * use the {@link InMemoryTermsMetrics}. By default, nothing is recorded
+ *
+ * @see #noop()
+ */
+public interface TermsMetrics {
+
+  /**
+   * The outcome of a call
+   */
+  enum Outcome {
+    /**
+     * The call was successful
+     */
+    HIT,
+    /**
+     * The call found nothing
+     */
+    MISS,
+    /**
+     * The call was not supported, failed, or threw an exception
+     */
+    FAILURE;
+
+    public static Outcome of(Answer<?> answer) {
+      if (answer.isSuccess()) {
+        return HIT;
+      }
+      return answer.isNotFound() ? MISS : FAILURE;
+    }
+  }
+
+  /**
+   * Records a call made on a provider
+   *
+   * @param provider     the name of the provider
+   * @param operation    the name of the operation
+   * @param elapsedNanos the duration of the call, in nanoseconds
+   * @param outcome      the outcome of the call
+   */
+  void recordCall(String provider, String operation, long elapsedNanos, Outcome outcome);
+
+  /**
+   * Records how a call has been resolved by the broker across its providers
+   *
+   * @param operation       the name of the operation
+   * @param answeredBy      the name of the provider whose Answer was returned, or null if no
+   *                        provider succeeded
+   * @param providersTried  the number of providers considered, in order of precedence. A call
+   *                        falls through when more than one provider has to be considered
+   */
+  void recordResolution(String operation, String answeredBy, int providersTried);
+
+  /**
+   * Makes a call, recording its duration and outcome
+   *
+   * @param provider  the name of the provider
+   * @param operation the name of the operation
+   * @param call      the call
+   * @param <T>       the type of the Answer
+   * @return the Answer of the call
+   */
+  default <T> Answer<T> time(String provider, String operation, Supplier<Answer<T>> call) {
+    long start = System.nanoTime();
+    try {
+      Answer<T> answer = call.get();
+      recordCall(provider, operation, System.nanoTime() - start, Outcome.of(answer));
+      return answer;
+    } catch (RuntimeException e) {
+      recordCall(provider, operation, System.nanoTime() - start, Outcome.FAILURE);
+      throw e;
+    }
+  }
+
+  /**
+   * @return an implementation that records nothing, and adds no overhead to the calls
+   */
+  static TermsMetrics noop() {
+    return NoopTermsMetrics.INSTANCE;
+  }
+}
@@ -0,0 +1,217 @@
+package edu.mayo.kmdp.terms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.mayo.kmdp.terms.CompositeTermsServer.TYPE;
+import edu.mayo.kmdp.terms.TermsBrokerImpl.ResolutionStrategy;
+import edu.mayo.kmdp.terms.metrics.InMemoryTermsMetrics;
+import edu.mayo.kmdp.terms.metrics.InMemoryTermsMetrics.CallStats;
+import edu.mayo.kmdp.terms.metrics.InMemoryTermsMetrics.ResolutionStats;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.omg.spec.api4kp._20200801.Answer;
+import org.omg.spec.api4kp._20200801.id.Pointer;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class TermsBrokerImplTest {
+
+  static final String CONCEPT_ID = "14e929a2-a22a-3107-8a38-692107b0f7c5";
+
+  TermsFHIRFacade fhirTerms = Mockito.mock(TermsFHIRFacade.class);
+  TermsProvider enumTerms = Mockito.mock(TermsProvider.class);
+  TermsBrokerImpl broker = new TermsBrokerImpl(fhirTerms, enumTerms);
+
+  @AfterEach
+  void shutdown() {
+    broker.shutdown();
+  }
+
+  @Test
+  void testConcurrentPrecedence() {
+    broker.resolution = ResolutionStrategy.CONCURRENT;
+    Answer<ConceptDescriptor> fhirAnswer = Answer.of(new ConceptDescriptor());
+    Answer<ConceptDescriptor> enumAnswer = Answer.of(new ConceptDescriptor());
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(fhirAnswer);
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(enumAnswer);
+
+    assertSame(fhirAnswer, broker.lookupTerm(CONCEPT_ID));
+  }
+
+  @Test
+  void testConcurrentFallthrough() {
+    broker.resolution = ResolutionStrategy.CONCURRENT;
+    Answer<ConceptDescriptor> enumAnswer = Answer.of(new ConceptDescriptor());
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(enumAnswer);
+
+    assertSame(enumAnswer, broker.lookupTerm(CONCEPT_ID));
+  }
+
+  @Test
+  void testConcurrentFailure() {
+    broker.resolution = ResolutionStrategy.CONCURRENT;
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isFailure());
+  }
+
+  @Test
+  void testNegativeCache() {
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+    when(fhirTerms.clearTerminologies()).thenReturn(Answer.succeed());
+
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isNotFound());
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isNotFound());
+    verify(enumTerms, times(1)).lookupTerm(CONCEPT_ID);
+
+    broker.clearTerminologies();
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isNotFound());
+    verify(enumTerms, times(2)).lookupTerm(CONCEPT_ID);
+  }
+
+  @Test
+  void testNegativeCacheOnlyRecordsMisses() {
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.unsupported());
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isFailure());
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isFailure());
+    verify(enumTerms, times(2)).lookupTerm(CONCEPT_ID);
+  }
+
+  @Test
+  void testNegativeCacheFollowsIndexGeneration() {
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isNotFound());
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isNotFound());
+    verify(enumTerms, times(1)).lookupTerm(CONCEPT_ID);
+
+    // the FHIR facade reindexes on its own
+    when(fhirTerms.getIndexGeneration()).thenReturn(1L);
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isNotFound());
+    verify(enumTerms, times(2)).lookupTerm(CONCEPT_ID);
+  }
+
+  @Test
+  void testRouting() {
+    UUID vocabularyId = UUID.randomUUID();
+    Pointer enumScheme = new Pointer().withUuid(vocabularyId).withVersionTag("v1");
+    Answer<ConceptDescriptor> enumAnswer = Answer.of(new ConceptDescriptor());
+    when(fhirTerms.listTerminologies()).thenReturn(Answer.of(Collections.emptyList()));
+    when(enumTerms.listTerminologies())
+        .thenReturn(Answer.of(Collections.singletonList(enumScheme)));
+    when(enumTerms.getTerm(vocabularyId, "v1", CONCEPT_ID)).thenReturn(enumAnswer);
+
+    assertSame(enumAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    verify(fhirTerms, never()).getTerm(vocabularyId, "v1", CONCEPT_ID);
+  }
+
+  @Test
+  void testRoutesFollowIndexGeneration() {
+    UUID vocabularyId = UUID.randomUUID();
+    Pointer scheme = new Pointer().withUuid(vocabularyId).withVersionTag("v1");
+    Answer<ConceptDescriptor> fhirAnswer = Answer.of(new ConceptDescriptor());
+    Answer<ConceptDescriptor> enumAnswer = Answer.of(new ConceptDescriptor());
+    when(fhirTerms.listTerminologies()).thenReturn(Answer.of(Collections.emptyList()));
+    when(enumTerms.listTerminologies()).thenReturn(Answer.of(Collections.singletonList(scheme)));
+    when(fhirTerms.getTerm(vocabularyId, "v1", CONCEPT_ID)).thenReturn(fhirAnswer);
+    when(enumTerms.getTerm(vocabularyId, "v1", CONCEPT_ID)).thenReturn(enumAnswer);
+
+    assertSame(enumAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    assertSame(enumAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    verify(fhirTerms, times(1)).listTerminologies();
+
+    // the FHIR facade reindexes on its own, and now owns the terminology
+    when(fhirTerms.getIndexGeneration()).thenReturn(1L);
+    when(fhirTerms.listTerminologies()).thenReturn(Answer.of(Collections.singletonList(scheme)));
+    assertSame(fhirAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    verify(fhirTerms, times(2)).listTerminologies();
+  }
+
+  @Test
+  void testRoutesCachedWhileUnavailable() {
+    UUID vocabularyId = UUID.randomUUID();
+    Pointer scheme = new Pointer().withUuid(vocabularyId).withVersionTag("v1");
+    Answer<ConceptDescriptor> fhirAnswer = Answer.of(new ConceptDescriptor());
+    Answer<ConceptDescriptor> enumAnswer = Answer.of(new ConceptDescriptor());
+    when(fhirTerms.listTerminologies()).thenReturn(Answer.unsupported());
+    when(enumTerms.listTerminologies()).thenReturn(Answer.of(Collections.singletonList(scheme)));
+    when(fhirTerms.getTerm(vocabularyId, "v1", CONCEPT_ID)).thenReturn(fhirAnswer);
+    when(enumTerms.getTerm(vocabularyId, "v1", CONCEPT_ID)).thenReturn(enumAnswer);
+
+    // the FHIR facade is offline, and the partial routes are cached nonetheless
+    assertSame(enumAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    assertSame(enumAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    verify(fhirTerms, times(1)).listTerminologies();
+    verify(enumTerms, times(1)).listTerminologies();
+
+    // the FHIR facade goes online, moving to a new generation
+    when(fhirTerms.getIndexGeneration()).thenReturn(1L);
+    when(fhirTerms.listTerminologies()).thenReturn(Answer.of(Collections.singletonList(scheme)));
+    assertSame(fhirAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    assertSame(fhirAnswer, broker.getTerm(vocabularyId, "v1", CONCEPT_ID));
+    verify(fhirTerms, times(2)).listTerminologies();
+  }
+
+  @Test
+  void testResolveTermsPartition() {
+    ConceptDescriptor fhirCd = new ConceptDescriptor();
+    ConceptDescriptor enumCd = new ConceptDescriptor();
+    List<String> conceptIds = Arrays.asList("a", "b", "c");
+    when(fhirTerms.resolveTerms(null, null, conceptIds))
+        .thenReturn(Answer.of(Collections.singletonMap("b", fhirCd)));
+    when(enumTerms.resolveTerms(null, null, Arrays.asList("a", "c")))
+        .thenReturn(Answer.of(Collections.singletonMap("a", enumCd)));
+
+    Map<String, ConceptDescriptor> resolved = broker.resolveTerms(null, null, conceptIds).get();
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<>(resolved.keySet()));
+    assertSame(enumCd, resolved.get("a"));
+    assertSame(fhirCd, resolved.get("b"));
+  }
+
+  @Test
+  void testMetrics() {
+    InMemoryTermsMetrics metrics = new InMemoryTermsMetrics();
+    broker.setMetrics(metrics);
+    when(fhirTerms.getType()).thenReturn(TYPE.FHIR);
+    when(enumTerms.getType()).thenReturn(TYPE.ENUM);
+    when(fhirTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.notFound());
+    when(enumTerms.lookupTerm(CONCEPT_ID)).thenReturn(Answer.of(new ConceptDescriptor()));
+    when(fhirTerms.lookupTerm("missing")).thenReturn(Answer.notFound());
+    when(enumTerms.lookupTerm("missing")).thenReturn(Answer.notFound());
+
+    assertTrue(broker.lookupTerm(CONCEPT_ID).isSuccess());
+    assertTrue(broker.lookupTerm("missing").isNotFound());
+
+    ResolutionStats resolutions = metrics.getResolutionStats("lookupTerm");
+    assertEquals(2, resolutions.getResolutions());
+    assertEquals(2, resolutions.getFallthroughs());
+    assertEquals(1, resolutions.getAnsweredBy("enum"));
+    assertEquals(0, resolutions.getAnsweredBy("fhir"));
+    assertEquals(1, resolutions.getAnsweredBy(InMemoryTermsMetrics.UNRESOLVED));
+
+    CallStats calls = metrics.getCallStats(TermsBrokerImpl.METRICS_NAME, "lookupTerm");
+    assertEquals(2, calls.getCalls());
+    assertEquals(1, calls.getHits());
+    assertEquals(1, calls.getMisses());
+    assertEquals(2, calls.getLatency().getCount());
+  }
+
+}
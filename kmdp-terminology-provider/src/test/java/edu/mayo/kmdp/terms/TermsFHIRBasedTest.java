@@ -4,15 +4,30 @@ import static edu.mayo.kmdp.terms.TermsTestUtil.prepopulateWithKnownKMDTaxonomy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.omg.spec.api4kp._20200801.taxonomy.clinicalknowledgeassettype.ClinicalKnowledgeAssetTypeSeries.Clinical_Rule;
 import static org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetTypeSeries.Assessment_Model;
 
 import edu.mayo.kmdp.repository.asset.KnowledgeAssetRepositoryServerProperties;
 import edu.mayo.kmdp.repository.asset.KnowledgeAssetRepositoryService;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.javers.core.Javers;
 import org.javers.core.JaversBuilder;
 import org.javers.core.diff.Diff;
@@ -20,6 +35,8 @@ import org.javers.core.metamodel.clazz.EntityDefinition;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.omg.spec.api4kp._20200801.Answer;
 import org.omg.spec.api4kp._20200801.api.repository.asset.v4.KnowledgeAssetCatalogApi;
 import org.omg.spec.api4kp._20200801.api.repository.asset.v4.KnowledgeAssetRepositoryApi;
 import org.omg.spec.api4kp._20200801.id.KeyIdentifier;
@@ -31,6 +48,7 @@ import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
 
 class TermsFHIRBasedTest {
 
+  static KnowledgeAssetRepositoryService kars;
   static TermsProvider refServer;
   static TermsFHIRFacade server;
 
@@ -38,7 +56,7 @@ class TermsFHIRBasedTest {
 
   @BeforeAll
   static void init() {
-    KnowledgeAssetRepositoryService kars = KnowledgeAssetRepositoryService.selfContainedRepository(
+    kars = KnowledgeAssetRepositoryService.selfContainedRepository(
         new KnowledgeAssetRepositoryServerProperties(
             TermsFHIRBasedTest.class.getResourceAsStream("/application.test.properties")));
     prepopulateWithKnownKMDTaxonomy(kars);
@@ -83,8 +101,9 @@ class TermsFHIRBasedTest {
         .orElseGet(Assertions::fail);
 
     assertEquals(KnowledgeAssetTypeSeries.values().length, terms1.size());
-    // the legacy server indexes using both the old 'ontology' vs 'taxonomy' UUID, which predates the decision to unify the two
-    assertEquals(2 * KnowledgeAssetTypeSeries.values().length, terms2.size());
+    // the legacy server indexes each concept under both its UUID and its tag (as well as the old
+    // 'ontology' vs 'taxonomy' aliases), but lists each concept once, after deduplicating them
+    assertEquals(KnowledgeAssetTypeSeries.values().length, terms2.size());
 
     ConceptDescriptor cd1 = terms1.stream()
         .filter(cd -> cd.getUuid().equals(Assessment_Model.getUuid())).findFirst()
@@ -95,6 +114,12 @@ class TermsFHIRBasedTest {
 
     Diff diff = differ.compare(cd1, cd2);
     assertTrue(diff.getChanges().isEmpty());
+
+    // the terms are shared by the published index, and cannot be modified by the callers
+    List<ConceptDescriptor> all = server.getTerms(uuid, versionTag, null)
+        .orElseGet(Assertions::fail);
+    assertThrows(UnsupportedOperationException.class, () -> all.add(new ConceptDescriptor()));
+    assertThrows(UnsupportedOperationException.class, all::clear);
   }
 
   @Test
@@ -142,6 +167,142 @@ class TermsFHIRBasedTest {
     assertSame(cd1, cd12);
   }
 
+  @Test
+  void testIncrementalReindex() {
+    KnowledgeAssetCatalogApi cat = Mockito.spy(KnowledgeAssetCatalogApi.newInstance(kars));
+    KnowledgeAssetRepositoryApi repo = Mockito.spy(KnowledgeAssetRepositoryApi.newInstance(kars));
+    TermsFHIRFacade facade = new TermsFHIRFacade(cat, repo);
+    ConceptDescriptor cd1 = facade.lookupTerm(Clinical_Rule.getUuid().toString())
+        .orElseGet(Assertions::fail);
+
+    clearInvocations(cat, repo);
+    assertTrue(facade.reindex(true).isSuccess());
+    assertEquals(2, facade.listTerminologies().orElseGet(Assertions::fail).size());
+
+    // unchanged assets are not fetched again
+    verify(cat, never()).getKnowledgeAssetVersion(any(), any());
+    verify(repo, never()).getKnowledgeAssetVersionCanonicalCarrier(any(), any(), any());
+    verify(repo, never()).getKnowledgeAssetCarrierVersion(any(), any(), any(), any(), any());
+
+    ConceptDescriptor cd2 = facade.lookupTerm(Clinical_Rule.getUuid().toString())
+        .orElseGet(Assertions::fail);
+    assertSame(cd1, cd2);
+  }
+
+  @Test
+  void testIncrementalReindexRetriesIncompleteAssets() {
+    KnowledgeAssetCatalogApi cat = Mockito.spy(KnowledgeAssetCatalogApi.newInstance(kars));
+    KnowledgeAssetRepositoryApi repo = Mockito.spy(KnowledgeAssetRepositoryApi.newInstance(kars));
+    // the first CodeSystem fetch fails, the following ones succeed
+    doReturn(Answer.failed()).doCallRealMethod()
+        .when(repo).getKnowledgeAssetVersionCanonicalCarrier(any(), any(), any());
+    doReturn(Answer.failed()).doCallRealMethod()
+        .when(repo).getKnowledgeAssetCarrierVersion(any(), any(), any(), any(), any());
+
+    TermsFHIRFacade facade = new TermsFHIRFacade(cat, repo);
+    assertEquals(2, facade.listTerminologies().orElseGet(Assertions::fail).size());
+    assertTrue(facade.getIndexSize() < server.getIndexSize());
+
+    // the incomplete asset is fetched again, until complete
+    clearInvocations(cat, repo);
+    assertTrue(facade.reindex(true).isSuccess());
+    verify(cat, atLeastOnce()).getKnowledgeAssetVersion(any(), any());
+    assertEquals(server.getIndexSize(), facade.getIndexSize());
+    assertTrue(facade.lookupTerm(Clinical_Rule.getUuid().toString()).isSuccess());
+
+    // once complete, it is no longer fetched
+    clearInvocations(cat, repo);
+    assertTrue(facade.reindex(true).isSuccess());
+    verify(cat, never()).getKnowledgeAssetVersion(any(), any());
+  }
+
+  @Test
+  void testReadersSeeConsistentSnapshotDuringReindex() throws Exception {
+    KnowledgeAssetCatalogApi cat = KnowledgeAssetCatalogApi.newInstance(kars);
+    KnowledgeAssetRepositoryApi repo = Mockito.spy(KnowledgeAssetRepositoryApi.newInstance(kars));
+    TermsFHIRFacade facade = new TermsFHIRFacade(cat, repo);
+    Map<KeyIdentifier, List<UUID>> content = contentOf(facade);
+    long generation = facade.getIndexGeneration();
+
+    // the next reindex stops while fetching the CodeSystems, until released
+    CountDownLatch fetching = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    org.mockito.stubbing.Answer<Object> block = invocation -> {
+      fetching.countDown();
+      release.await(30, TimeUnit.SECONDS);
+      return invocation.callRealMethod();
+    };
+    doAnswer(block).when(repo).getKnowledgeAssetVersionCanonicalCarrier(any(), any(), any());
+    doAnswer(block).when(repo)
+        .getKnowledgeAssetCarrierVersion(any(), any(), any(), any(), any());
+
+    CompletableFuture<Answer<Void>> reindex = CompletableFuture.supplyAsync(facade::reindex);
+    try {
+      assertTrue(fetching.await(30, TimeUnit.SECONDS));
+
+      // while the new index is being built, the readers keep seeing the previous one, in full
+      assertEquals(content, contentOf(facade));
+      assertTrue(facade.lookupTerm(Clinical_Rule.getUuid().toString()).isSuccess());
+      assertEquals(generation, facade.getIndexGeneration());
+    } finally {
+      release.countDown();
+    }
+
+    assertTrue(reindex.get(30, TimeUnit.SECONDS).isSuccess());
+    assertTrue(facade.getIndexGeneration() > generation);
+    assertEquals(content, contentOf(facade));
+  }
+
+  @Test
+  void testParallelReindex() throws Exception {
+    TermsFHIRFacade serial = newFacade(1);
+    TermsFHIRFacade parallel = newFacade(4);
+
+    assertEquals(serial.getIndexSize(), parallel.getIndexSize());
+    assertEquals(contentOf(serial), contentOf(parallel));
+    ConceptDescriptor cd1 = serial.lookupTerm(Clinical_Rule.getUuid().toString())
+        .orElseGet(Assertions::fail);
+    ConceptDescriptor cd2 = parallel.lookupTerm(Clinical_Rule.getUuid().toString())
+        .orElseGet(Assertions::fail);
+    assertEquals(cd1.getUuid(), cd2.getUuid());
+    assertEquals(cd1.getName(), cd2.getName());
+
+    // a serial reindex needs no workers; the parallel ones share a pool
+    assertFalse(serial.getReindexWorkers().isPresent());
+    ExecutorService workers = parallel.getReindexWorkers().orElseGet(Assertions::fail);
+    assertTrue(parallel.reindex().isSuccess());
+    assertSame(workers, parallel.getReindexWorkers().orElseGet(Assertions::fail));
+    assertEquals(contentOf(serial), contentOf(parallel));
+
+    parallel.shutdown();
+    assertTrue(workers.isShutdown());
+    assertTrue(workers.awaitTermination(30, TimeUnit.SECONDS));
+    assertFalse(parallel.getReindexWorkers().isPresent());
+  }
+
+  private static TermsFHIRFacade newFacade(int reindexParallelism) {
+    TermsFHIRFacade facade = new TermsFHIRFacade();
+    facade.cat = KnowledgeAssetCatalogApi.newInstance(kars);
+    facade.repo = KnowledgeAssetRepositoryApi.newInstance(kars);
+    facade.reindexParallelism = reindexParallelism;
+    assertTrue(facade.reindex().isSuccess());
+    return facade;
+  }
+
+  /**
+   * @return the UUIDs of the Concepts in each terminology served by a facade, in order
+   */
+  private static Map<KeyIdentifier, List<UUID>> contentOf(TermsFHIRFacade facade) {
+    Map<KeyIdentifier, List<UUID>> content = new HashMap<>();
+    for (Pointer ptr : facade.listTerminologies().orElseGet(Assertions::fail)) {
+      content.put(ptr.asKey(), facade.getTerms(ptr.getUuid(), ptr.getVersionTag())
+          .orElseGet(Assertions::fail).stream()
+          .map(ConceptDescriptor::getUuid)
+          .collect(Collectors.toList()));
+    }
+    return content;
+  }
+
   @Test
   void testLookupFailure() {
     String random = UUID.randomUUID().toString();
@@ -3,14 +3,18 @@ package edu.mayo.kmdp.terms;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.omg.spec.api4kp._20200801.taxonomy.clinicalknowledgeassettype.ClinicalKnowledgeAssetTypeSeries.Clinical_Rule;
 
+import edu.mayo.kmdp.terms.impl.ConceptIndex;
+import edu.mayo.kmdp.terms.impl.model.TerminologyScheme;
 import edu.mayo.ontology.taxonomies.ws.responsecodes.ResponseCodeSeries;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.omg.spec.api4kp._20200801.Answer;
@@ -18,6 +22,7 @@ import org.omg.spec.api4kp._20200801.api.terminology.v4.server.TermsApiInternal;
 import org.omg.spec.api4kp._20200801.id.Pointer;
 import org.omg.spec.api4kp._20200801.id.Term;
 import org.omg.spec.api4kp._20200801.services.KPComponent;
+import org.omg.spec.api4kp._20200801.taxonomy.clinicalknowledgeassettype.ClinicalKnowledgeAssetTypeSeries;
 import org.omg.spec.api4kp._20200801.taxonomy.clinicalknowledgeassettype._20210401.ClinicalKnowledgeAssetType;
 import org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetType;
 import org.omg.spec.api4kp._20200801.taxonomy.knowledgeassettype.KnowledgeAssetTypeSeries;
@@ -54,18 +59,37 @@ class TermsProviderTest {
     Answer<List<ConceptDescriptor>> answer = provider.getTerms(
         KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid(),
         API4KP_VERSION_TAG, "");
-    assertEquals(KnowledgeProcessingOperationSeries.values().length * 2, answer.get().size());
+    // each concept is indexed under several aliases (uuid, tag), but is listed once
+    assertEquals(KnowledgeProcessingOperationSeries.values().length, answer.get().size());
   }
 
   /**
-   * Verify an exception is thrown if the version does not exist
+   * Verify NotFound is returned if the version does not exist
    */
   @Test
   void testGetTerms_KPOvBad() {
     UUID uuid = KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid();
-    assertThrows(NullPointerException.class,
-        () -> provider.getTerms(uuid, "20191208", "")
-    );
+    assertTrue(provider.getTerms(uuid, "20191208", "").isNotFound());
+  }
+
+  /**
+   * Verify NotFound is returned if the terminology does not exist
+   */
+  @Test
+  void testGetTerms_UnknownScheme() {
+    assertTrue(provider.getTerms(UUID.randomUUID(), API4KP_VERSION_TAG, "").isNotFound());
+  }
+
+  /**
+   * Verify that the terms cannot be modified by the callers
+   */
+  @Test
+  void testGetTerms_Unmodifiable() {
+    List<ConceptDescriptor> terms = provider.getTerms(
+        KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid(),
+        API4KP_VERSION_TAG, null).get();
+    assertThrows(UnsupportedOperationException.class, () -> terms.add(new ConceptDescriptor()));
+    assertThrows(UnsupportedOperationException.class, terms::clear);
   }
 
   /**
@@ -76,7 +100,26 @@ class TermsProviderTest {
     Answer<List<ConceptDescriptor>> answer = provider.getTerms(
         KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid(),
         API4KP_VERSION_TAG, "");
-    assertEquals(KnowledgeAssetTypeSeries.values().length * 2, answer.get().size());
+    // each concept is indexed under several aliases (uuid, tag), but is listed once
+    assertEquals(KnowledgeAssetTypeSeries.values().length, answer.get().size());
+  }
+
+  /**
+   * Verify that the terms can be filtered by label
+   */
+  @Test
+  void testGetTerms_KAv1_LabelFilter() {
+    List<ConceptDescriptor> all = provider.getTerms(
+        KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid(),
+        API4KP_VERSION_TAG, "").orElseGet(Collections::emptyList);
+    List<ConceptDescriptor> filtered = provider.getTerms(
+        KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid(),
+        API4KP_VERSION_TAG, "multi-agent decision").orElseGet(Collections::emptyList);
+
+    assertFalse(filtered.isEmpty());
+    assertTrue(filtered.size() < all.size());
+    assertTrue(filtered.stream()
+        .anyMatch(cd -> "MultiAgentDecisionTaskModel".equals(cd.getTag())));
   }
 
   /**
@@ -191,6 +234,28 @@ class TermsProviderTest {
     }
   }
 
+  /**
+   * Verify that the ancestors of a concept are listed as precomputed, unmodifiable descriptors
+   */
+  @Test
+  void testListAncestors_KPOv1() {
+    UUID vocabularyId = KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid();
+    String conceptId = "d76a9299-4e72-36c1-a261-2265afe11582";
+
+    List<ConceptDescriptor> ancestors =
+        provider.listAncestors(vocabularyId, API4KP_VERSION_TAG, conceptId).get();
+    assertEquals(1, ancestors.size());
+    assertEquals("selection task", ancestors.get(0).getName());
+
+    assertSame(ancestors,
+        provider.listAncestors(vocabularyId, API4KP_VERSION_TAG, conceptId).get());
+    assertThrows(UnsupportedOperationException.class,
+        () -> ancestors.add(new ConceptDescriptor()));
+
+    assertTrue(provider.listAncestors(vocabularyId, API4KP_VERSION_TAG,
+        UUID.randomUUID().toString()).isNotFound());
+  }
+
   /**
    * Verify that a concept is an ancestor
    */
@@ -233,6 +298,21 @@ class TermsProviderTest {
     assertEquals(conceptUUID, answer.get().getUuid().toString());
   }
 
+  /**
+   * Verify that a Concept can be looked up by its UUID, its tag or its resourceId, all of which
+   * resolve to the same (latest) descriptor
+   */
+  @Test
+  void testLookupTerm_Aliases() {
+    ConceptDescriptor byUuid = provider.lookupTerm("c6e34990-85d9-31b2-8a33-f46e0e9f8b33").get();
+    ConceptDescriptor byTag = provider.lookupTerm(byUuid.getTag()).get();
+    ConceptDescriptor byResourceId = provider.lookupTerm(byUuid.getResourceId().toString()).get();
+
+    assertEquals(byUuid.getUuid(), byTag.getUuid());
+    assertEquals(byUuid.getUuid(), byResourceId.getUuid());
+    assertSame(byUuid, provider.lookupTerm(byUuid.getUuid().toString()).get());
+  }
+
   @Test
   void testChainOperations() {
     int n = provider.listTerminologies()
@@ -259,4 +339,165 @@ class TermsProviderTest {
   void testLookupFailure() {
     assertTrue(provider.lookupTerm(UUID.randomUUID().toString()).isNotFound());
   }
+
+  /**
+   * Verify that date-based versions are ordered by date (then suffix), and that versions that
+   * cannot be parsed come before any date-based version
+   */
+  @Test
+  void testVersionKeys() {
+    assertTrue(TermsProvider.toVersionKey("20210401") < TermsProvider.toVersionKey("20210402"));
+    assertTrue(TermsProvider.toVersionKey("20210401") < TermsProvider.toVersionKey("20210401-1"));
+    assertTrue(TermsProvider.toVersionKey("20210401-2") < TermsProvider.toVersionKey("20210402"));
+    assertEquals(Long.MIN_VALUE, TermsProvider.toVersionKey("latest"));
+    assertEquals(Long.MIN_VALUE, TermsProvider.toVersionKey("2021-04-01"));
+    assertEquals(Long.MIN_VALUE, TermsProvider.toVersionKey("20210401-x"));
+  }
+
+  /**
+   * Verify that the latest (date-based) version of a Concept is indexed, regardless of the order
+   * of the schemes, and even if other versions cannot be parsed
+   */
+  @Test
+  void testLatestVersionWithUnparsableVersions() {
+    UUID conceptId = UUID.randomUUID();
+    ConceptDescriptor dated = new ConceptDescriptor().withUuid(conceptId).withName("dated");
+    ConceptDescriptor undated = new ConceptDescriptor().withUuid(conceptId).withName("undated");
+    ConceptDescriptor older = new ConceptDescriptor().withUuid(conceptId).withName("older");
+    TerminologyScheme datedScheme = scheme("20210401", dated);
+    TerminologyScheme undatedScheme = scheme("latest", undated);
+    TerminologyScheme olderScheme = scheme("20200101", older);
+
+    TermsProvider tp = new TermsProvider();
+    assertSame(dated, tp.indexLatestConcepts(
+        Arrays.asList(undatedScheme, datedScheme, olderScheme)).get(conceptId));
+    assertSame(dated, tp.indexLatestConcepts(
+        Arrays.asList(olderScheme, datedScheme, undatedScheme)).get(conceptId));
+    assertSame(undated, tp.indexLatestConcepts(
+        Collections.singletonList(undatedScheme)).get(conceptId));
+  }
+
+  private static TerminologyScheme scheme(String version, ConceptDescriptor cd) {
+    TerminologyScheme scheme = new TerminologyScheme();
+    scheme.setVersion(version);
+    scheme.setVersionKey(TermsProvider.toVersionKey(version));
+    scheme.setTerms(ConceptIndex.of(
+        Collections.singletonList(cd), d -> new UUID[]{d.getUuid()}));
+    return scheme;
+  }
+
+  /**
+   * Verify that the terms decoded from the binary index match the terms read from the classes
+   */
+  @Test
+  void testBinaryIndex() {
+    TermsProvider binaryProvider =
+        TermsProvider.newTermsProvider("terminologies.json", "terminologies.bin");
+    TermsProvider classProvider = new TermsProvider();
+    classProvider.terminologyFile = "terminologies.json";
+    classProvider.useBinaryIndex = false;
+    classProvider.populateMap();
+    assertTrue(binaryProvider.hasBinaryIndex());
+    assertFalse(classProvider.hasBinaryIndex());
+
+    UUID vocabularyId = KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid();
+    String conceptId = "5c742ccc-fb77-3f33-87f5-663c2d9d251c";
+
+    assertEquals(
+        classProvider.getTerms(vocabularyId, API4KP_VERSION_TAG, "").get().size(),
+        binaryProvider.getTerms(vocabularyId, API4KP_VERSION_TAG, "").get().size());
+
+    ConceptDescriptor expected =
+        classProvider.getTerm(vocabularyId, API4KP_VERSION_TAG, conceptId).get();
+    ConceptDescriptor actual = binaryProvider.getTerm(vocabularyId, API4KP_VERSION_TAG, conceptId)
+        .get();
+    assertEquals(expected.getUuid(), actual.getUuid());
+    assertEquals(expected.getTag(), actual.getTag());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getReferentId(), actual.getReferentId());
+    assertEquals(expected.getAncestors().length, actual.getAncestors().length);
+    assertEquals(expected.getAncestors()[0].getUuid(), actual.getAncestors()[0].getUuid());
+
+    assertTrue(binaryProvider.isAncestor(
+        KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid(), API4KP_VERSION_TAG,
+        "d76a9299-4e72-36c1-a261-2265afe11582", "a5628370-845c-350f-b0e7-6cab66aac127")
+        .orElse(false));
+  }
+
+  /**
+   * Verify that the binary index written next to the terminology file is used by default, and
+   * that the terminology classes are used when there is none
+   */
+  @Test
+  void testDefaultBinaryIndex() {
+    assertTrue(TermsProvider.newTermsProvider().hasBinaryIndex());
+
+    TermsProvider classProvider =
+        TermsProvider.newTermsProvider("terminologies.json", "missing/terminologies.bin");
+    assertFalse(classProvider.hasBinaryIndex());
+    assertTrue(classProvider.listTerminologies().isSuccess());
+  }
+
+  /**
+   * Verify that, in lazy mode, the terms are materialized on access, except for warm-up schemes
+   */
+  @Test
+  void testLazyMaterialization() {
+    TermsProvider lazyProvider = new TermsProvider();
+    lazyProvider.terminologyFile = "terminologies.json";
+    lazyProvider.lazy = true;
+    lazyProvider.warmUp = KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid().toString();
+    lazyProvider.populateMap();
+
+    UUID vocabularyId = KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid();
+    UUID otherVocabularyId = ClinicalKnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid();
+    assertTrue(lazyProvider.isMaterialized(
+        KnowledgeAssetTypeSeries.schemeSeriesIdentifier.getUuid(), API4KP_VERSION_TAG));
+    assertFalse(lazyProvider.isMaterialized(vocabularyId, API4KP_VERSION_TAG));
+    assertFalse(lazyProvider.isMaterialized(otherVocabularyId, API4KP_VERSION_TAG));
+
+    // accessing a scheme, or looking up a Concept, does not materialize the other schemes
+    assertTrue(lazyProvider.getTerm(otherVocabularyId, API4KP_VERSION_TAG, Clinical_Rule.getTag())
+        .isSuccess());
+    assertTrue(lazyProvider.isMaterialized(otherVocabularyId, API4KP_VERSION_TAG));
+    assertTrue(lazyProvider.lookupTerm(Clinical_Rule.getUuid().toString()).isSuccess());
+    assertFalse(lazyProvider.isMaterialized(vocabularyId, API4KP_VERSION_TAG));
+
+    assertTrue(lazyProvider.lookupTerm("c6e34990-85d9-31b2-8a33-f46e0e9f8b33").isSuccess());
+    assertEquals(
+        provider.getTerms(vocabularyId, API4KP_VERSION_TAG, "").get().size(),
+        lazyProvider.getTerms(vocabularyId, API4KP_VERSION_TAG, "").get().size());
+    assertTrue(lazyProvider.isAncestor(vocabularyId, API4KP_VERSION_TAG,
+        "d76a9299-4e72-36c1-a261-2265afe11582", "a5628370-845c-350f-b0e7-6cab66aac127")
+        .orElse(false));
+  }
+
+  /**
+   * Verify that a batch of Concepts can be resolved in one call, omitting the unknown ones
+   */
+  @Test
+  void testResolveTerms() {
+    String knownId = "c6e34990-85d9-31b2-8a33-f46e0e9f8b33";
+    String unknownId = UUID.randomUUID().toString();
+    List<String> conceptIds = Arrays.asList(knownId, unknownId);
+
+    Map<String, ConceptDescriptor> scoped = ((CompositeTermsServer) provider).resolveTerms(
+        KnowledgeProcessingOperationSeries.schemeSeriesIdentifier.getUuid(),
+        API4KP_VERSION_TAG, conceptIds).get();
+    assertEquals(Collections.singleton(knownId), scoped.keySet());
+
+    Map<String, ConceptDescriptor> unscoped = ((CompositeTermsServer) provider)
+        .resolveTerms(null, null, conceptIds).get();
+    assertEquals(Collections.singleton(knownId), unscoped.keySet());
+    assertEquals(knownId, unscoped.get(knownId).getUuid().toString());
+  }
+
+  /**
+   * Verify that the (static) content of the provider is not reported as (ever) indexed, so that
+   * index freshness checks do not apply
+   */
+  @Test
+  void testNoLastIndexed() {
+    assertFalse(((CompositeTermsServer) provider).getLastIndexed().isPresent());
+  }
 }
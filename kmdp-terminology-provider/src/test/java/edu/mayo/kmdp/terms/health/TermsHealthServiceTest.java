@@ -1,5 +1,7 @@
 package edu.mayo.kmdp.terms.health;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import edu.mayo.kmdp.health.datatype.ApplicationComponent;
@@ -7,8 +9,14 @@ import edu.mayo.kmdp.health.datatype.Status;
 import edu.mayo.kmdp.health.service.HealthService;
 import edu.mayo.kmdp.terms.CompositeTermsServer;
 import edu.mayo.kmdp.terms.CompositeTermsServer.TYPE;
+import edu.mayo.kmdp.terms.TermsFHIRFacade;
+import edu.mayo.kmdp.terms.TermsProvider;
+import edu.mayo.kmdp.terms.metrics.InMemoryTermsMetrics;
+import edu.mayo.kmdp.terms.metrics.TermsMetrics.Outcome;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.jena.ext.com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -219,4 +227,164 @@ class TermsHealthServiceTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  void testCachedAssessment() {
+
+    TermsApiInternal termsApiInternal = Mockito.mock(TermsApiInternal.class);
+
+    List<Pointer> pointerList = Lists.newArrayList();
+    pointerList.add(new Pointer().withTag(TAG_1));
+    when(termsApiInternal.listTerminologies()).thenReturn(Answer.of(pointerList));
+
+    AtomicLong now = new AtomicLong(1_000_000);
+    TermsHealthService termsHealthService = new TermsHealthService(termsApiInternal);
+    termsHealthService.clock = now::get;
+    termsHealthService.refreshIntervalSeconds = 3600;
+    termsHealthService.init();
+
+    try {
+
+      now.addAndGet(500);
+      ApplicationComponent applicationComponent = termsHealthService.assessHealth();
+      termsHealthService.assessHealth();
+
+      verify(termsApiInternal, times(1)).listTerminologies();
+      Assertions.assertEquals(Status.UP, applicationComponent.getStatus());
+      Assertions.assertEquals(TermsHealthService.ACTIVE_VOCABULARIES + TAG_1,
+          applicationComponent.getStatusMessage());
+      Assertions.assertEquals("500",
+          applicationComponent.getDetails().get(TermsHealthService.TERMS_HEALTH_AGE_MS));
+      Assertions.assertEquals("false",
+          applicationComponent.getDetails().get(TermsHealthService.TERMS_HEALTH_STALE));
+
+      termsHealthService.refresh();
+      verify(termsApiInternal, times(2)).listTerminologies();
+
+    } finally {
+      termsHealthService.shutdown();
+    }
+
+  }
+
+  @Test
+  void testStaleAssessment() {
+
+    TermsApiInternal termsApiInternal = Mockito.mock(TermsApiInternal.class);
+
+    List<Pointer> pointerList = Lists.newArrayList();
+    pointerList.add(new Pointer().withTag(TAG_1));
+    when(termsApiInternal.listTerminologies()).thenReturn(Answer.of(pointerList));
+
+    AtomicLong now = new AtomicLong(1_000_000);
+    TermsHealthService termsHealthService = new TermsHealthService(termsApiInternal);
+    termsHealthService.clock = now::get;
+    termsHealthService.refreshIntervalSeconds = 3600;
+    termsHealthService.init();
+
+    try {
+
+      now.addAndGet(3 * 3600 * 1000 + 1);
+      ApplicationComponent applicationComponent = termsHealthService.assessHealth();
+
+      Assertions.assertEquals(Status.IMPAIRED, applicationComponent.getStatus());
+      Assertions.assertEquals(TermsHealthService.STALE_HEALTH_ASSESSMENT,
+          applicationComponent.getStatusMessage());
+      Assertions.assertEquals("true",
+          applicationComponent.getDetails().get(TermsHealthService.TERMS_HEALTH_STALE));
+
+    } finally {
+      termsHealthService.shutdown();
+    }
+
+  }
+
+  @Test
+  void testLatencySlo() {
+
+    CompositeTermsServer termsApiInternal = Mockito.mock(CompositeTermsServer.class);
+    when(termsApiInternal.getType()).thenReturn(TYPE.ENUM);
+
+    List<Pointer> pointerList = Lists.newArrayList();
+    pointerList.add(new Pointer().withTag(TAG_1));
+    when(termsApiInternal.listTerminologies()).thenReturn(Answer.of(pointerList));
+
+    InMemoryTermsMetrics metrics = new InMemoryTermsMetrics();
+    metrics.recordCall(TermsProvider.METRICS_NAME, "lookupTerm", 2_000_000_000L, Outcome.HIT);
+
+    TermsHealthService termsHealthService = new TermsHealthService(termsApiInternal);
+    termsHealthService.setMetrics(metrics);
+    termsHealthService.minLatencySamples = 1;
+
+    ApplicationComponent applicationComponent = termsHealthService.assessHealth();
+    Assertions.assertEquals(Status.UP, applicationComponent.getStatus());
+    Assertions.assertNotNull(
+        applicationComponent.getDetails().get(TermsHealthService.TERMS_LATENCY_P99_MS));
+
+    termsHealthService.p99LatencyMs = 500;
+    applicationComponent = termsHealthService.assessHealth();
+    Assertions.assertEquals(Status.IMPAIRED, applicationComponent.getStatus());
+    Assertions.assertTrue(
+        applicationComponent.getStatusMessage().startsWith(TermsHealthService.SLO_BREACHED));
+
+  }
+
+  @Test
+  void testLatencySloSampleFloor() {
+
+    CompositeTermsServer termsApiInternal = Mockito.mock(CompositeTermsServer.class);
+    when(termsApiInternal.getType()).thenReturn(TYPE.FHIR);
+
+    List<Pointer> pointerList = Lists.newArrayList();
+    pointerList.add(new Pointer().withTag(TAG_1));
+    when(termsApiInternal.listTerminologies()).thenReturn(Answer.of(pointerList));
+
+    InMemoryTermsMetrics metrics = new InMemoryTermsMetrics();
+    metrics.recordCall(TermsFHIRFacade.METRICS_NAME, "getTerm", 2_000_000_000L, Outcome.HIT);
+
+    TermsHealthService termsHealthService = new TermsHealthService(termsApiInternal);
+    termsHealthService.setMetrics(metrics);
+    termsHealthService.p99LatencyMs = 500;
+    termsHealthService.minLatencySamples = 2;
+
+    ApplicationComponent applicationComponent = termsHealthService.assessHealth();
+    Assertions.assertEquals(Status.UP, applicationComponent.getStatus());
+    Assertions.assertEquals("1",
+        applicationComponent.getDetails().get(TermsHealthService.TERMS_LATENCY_SAMPLES));
+
+    metrics.recordCall(TermsFHIRFacade.METRICS_NAME, "lookupTerm", 2_000_000_000L, Outcome.HIT);
+    applicationComponent = termsHealthService.assessHealth();
+    Assertions.assertEquals(Status.IMPAIRED, applicationComponent.getStatus());
+    Assertions.assertEquals("2",
+        applicationComponent.getDetails().get(TermsHealthService.TERMS_LATENCY_SAMPLES));
+
+  }
+
+  @Test
+  void testIndexAgeSlo() {
+
+    CompositeTermsServer termsApiInternal = Mockito.mock(CompositeTermsServer.class);
+    when(termsApiInternal.getType()).thenReturn(TYPE.FHIR);
+
+    List<Pointer> pointerList = Lists.newArrayList();
+    pointerList.add(new Pointer().withTag(TAG_1));
+    when(termsApiInternal.listTerminologies()).thenReturn(Answer.of(pointerList));
+    when(termsApiInternal.getLastIndexed()).thenReturn(Optional.of(Instant.ofEpochMilli(0)));
+    when(termsApiInternal.getIndexSize()).thenReturn(42L);
+
+    TermsHealthService termsHealthService = new TermsHealthService(termsApiInternal);
+    termsHealthService.clock = () -> 2 * 3600 * 1000;
+
+    ApplicationComponent applicationComponent = termsHealthService.assessHealth();
+    Assertions.assertEquals(Status.UP, applicationComponent.getStatus());
+    Assertions.assertEquals("42",
+        applicationComponent.getDetails().get(TermsHealthService.TERMS_INDEX_SIZE));
+    Assertions.assertEquals(Instant.ofEpochMilli(0).toString(),
+        applicationComponent.getDetails().get(TermsHealthService.TERMS_LAST_INDEXED));
+
+    termsHealthService.maxIndexAgeMinutes = 60;
+    applicationComponent = termsHealthService.assessHealth();
+    Assertions.assertEquals(Status.IMPAIRED, applicationComponent.getStatus());
+
+  }
+
+}
@@ -0,0 +1,77 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class AncestorClosureTest {
+
+  @Test
+  void testTransitiveAncestors() {
+    ConceptDescriptor root = concept();
+    ConceptDescriptor mid = concept(root);
+    ConceptDescriptor leaf = concept(mid);
+    ConceptDescriptor other = concept(root);
+
+    AncestorClosure closure = AncestorClosure.of(Arrays.asList(leaf, mid, root, other));
+
+    assertTrue(closure.isAncestor(leaf.getUuid(), mid.getUuid()));
+    assertTrue(closure.isAncestor(leaf.getUuid(), root.getUuid()));
+    assertTrue(closure.isAncestor(other.getUuid(), root.getUuid()));
+
+    assertFalse(closure.isAncestor(root.getUuid(), leaf.getUuid()));
+    assertFalse(closure.isAncestor(leaf.getUuid(), other.getUuid()));
+    assertFalse(closure.isAncestor(leaf.getUuid(), leaf.getUuid()));
+    assertFalse(closure.isAncestor(UUID.randomUUID(), root.getUuid()));
+  }
+
+  @Test
+  void testCycleTolerance() {
+    ConceptDescriptor a = concept();
+    ConceptDescriptor b = concept(a);
+    a.setAncestors(new Term[]{b});
+
+    AncestorClosure closure = AncestorClosure.of(Arrays.asList(a, b));
+
+    assertTrue(closure.isAncestor(a.getUuid(), b.getUuid()));
+    assertTrue(closure.isAncestor(b.getUuid(), a.getUuid()));
+  }
+
+  @Test
+  void testDeepHierarchy() {
+    int depth = 4_000;
+    List<ConceptDescriptor> chain = new ArrayList<>();
+    ConceptDescriptor current = concept();
+    chain.add(current);
+    for (int j = 1; j < depth; j++) {
+      current = concept(current);
+      chain.add(current);
+    }
+    // leaves first, so that the whole chain is closed from the deepest node
+    Collections.reverse(chain);
+
+    AncestorClosure closure = AncestorClosure.of(chain);
+
+    ConceptDescriptor leaf = chain.get(0);
+    ConceptDescriptor root = chain.get(depth - 1);
+    assertTrue(closure.isAncestor(leaf.getUuid(), root.getUuid()));
+    assertTrue(closure.isAncestor(chain.get(depth / 2).getUuid(), root.getUuid()));
+    assertFalse(closure.isAncestor(root.getUuid(), leaf.getUuid()));
+  }
+
+  private ConceptDescriptor concept(Term... parents) {
+    ConceptDescriptor cd = new ConceptDescriptor()
+        .withUuid(UUID.randomUUID());
+    cd.setAncestors(parents);
+    cd.setClosure(new Term[0]);
+    return cd;
+  }
+}
@@ -0,0 +1,68 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.mayo.kmdp.terms.TerminologyBinaryIndexWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.taxonomy.clinicalknowledgeassettype.ClinicalKnowledgeAssetTypeSeries;
+import org.omg.spec.api4kp._20200801.terms.ConceptTerm;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+/**
+ * Verifies that the binary index written by the TerminologyIndexer can be read back
+ * by the terms provider
+ */
+class BinaryTerminologyIndexTest {
+
+  @TempDir
+  public Path tmp;
+
+  @Test
+  void testRoundTrip() throws IOException {
+    ConceptTerm[] terms = Arrays.stream(ClinicalKnowledgeAssetTypeSeries.values())
+        .map(ConceptTerm.class::cast)
+        .toArray(ConceptTerm[]::new);
+    UUID schemeKey = UUID.randomUUID();
+
+    TerminologyBinaryIndexWriter writer = new TerminologyBinaryIndexWriter();
+    writer.addScheme(schemeKey, terms);
+    Path file = tmp.resolve("terms.bin");
+    writer.write(file.toFile());
+
+    BinaryTerminologyIndex index = BinaryTerminologyIndex.load(file.toString());
+    assertTrue(index.contains(schemeKey));
+    assertFalse(index.contains(UUID.randomUUID()));
+
+    List<ConceptDescriptor> descriptors = index.readTerms(schemeKey);
+    assertEquals(terms.length, descriptors.size());
+    for (int j = 0; j < terms.length; j++) {
+      ConceptDescriptor expected = ConceptDescriptor.toConceptDescriptor(terms[j]);
+      ConceptDescriptor actual = descriptors.get(j);
+      assertEquals(expected.getUuid(), actual.getUuid());
+      assertEquals(expected.getTag(), actual.getTag());
+      assertEquals(expected.getName(), actual.getName());
+      assertEquals(expected.getResourceId(), actual.getResourceId());
+      assertEquals(expected.getVersionId(), actual.getVersionId());
+      assertEquals(expected.getEstablishedOn(), actual.getEstablishedOn());
+      assertEquals(uuids(expected.getAncestors()), uuids(actual.getAncestors()));
+      assertEquals(uuids(expected.getClosure()), uuids(actual.getClosure()));
+    }
+  }
+
+  private List<UUID> uuids(Term[] terms) {
+    return Arrays.stream(terms)
+        .map(Term::getUuid)
+        .collect(Collectors.toList());
+  }
+
+}
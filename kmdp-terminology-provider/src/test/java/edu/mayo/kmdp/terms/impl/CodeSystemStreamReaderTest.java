@@ -0,0 +1,99 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class CodeSystemStreamReaderTest {
+
+  CodeSystemStreamReader reader = new CodeSystemStreamReader(
+      (url, version, code, display, definition, designations) -> new ConceptDescriptor()
+          .withTag(code)
+          .withName(display)
+          .withVersionTag(version)
+          .withNamespaceUri(URI.create(url))
+          .withLabels(designations));
+
+  @Test
+  void testReadConcepts() throws IOException {
+    List<ConceptDescriptor> concepts = reader.read(json("{"
+        + "'resourceType':'CodeSystem',"
+        + "'url':'http://test.org/cs',"
+        + "'version':'20210401',"
+        + "'property':[{'code':'parent','type':'code'}],"
+        + "'concept':["
+        + "  {'code':'a','display':'A','definition':'http://test.org/a',"
+        + "   'designation':[{'use':{'system':'http://sys','code':'alt'},'value':'Alpha'}],"
+        + "   'concept':[{'code':'a1','display':'A1'}]},"
+        + "  {'code':'b','display':'B'}"
+        + "]}"));
+
+    assertEquals(2, concepts.size());
+    assertEquals("a", concepts.get(0).getTag());
+    assertEquals("A", concepts.get(0).getName());
+    assertEquals("20210401", concepts.get(0).getVersionTag());
+    assertEquals("Alpha", concepts.get(0).getLabels().get("alt"));
+    assertEquals("b", concepts.get(1).getTag());
+  }
+
+  @Test
+  void testConceptsBeforeHeader() throws IOException {
+    List<ConceptDescriptor> concepts = reader.read(json("{"
+        + "'concept':[{'code':'a','display':'A'}],"
+        + "'version':'20210401',"
+        + "'url':'http://test.org/cs',"
+        + "'resourceType':'CodeSystem'}"));
+
+    assertEquals(1, concepts.size());
+    assertEquals("http://test.org/cs", concepts.get(0).getNamespaceUri().toString());
+  }
+
+  @Test
+  void testDesignationsWithoutUse() throws IOException {
+    List<ConceptDescriptor> concepts = reader.read(json("{"
+        + "'resourceType':'CodeSystem',"
+        + "'url':'http://test.org/cs',"
+        + "'version':'20210401',"
+        + "'concept':[{'code':'a','display':'A','designation':["
+        + "  {'value':'Alpha'},"
+        + "  {'use':{'system':'http://sys','code':'alt'},'value':'Alt'}]}"
+        + "]}"));
+
+    assertEquals(1, concepts.size());
+    assertEquals(1, concepts.get(0).getLabels().size());
+    assertFalse(concepts.get(0).getLabels().containsKey(null));
+    assertEquals("Alt", concepts.get(0).getLabels().get("alt"));
+  }
+
+  @Test
+  void testReadFromReader() throws IOException {
+    List<ConceptDescriptor> concepts = reader.read(new StringReader(("{"
+        + "'resourceType':'CodeSystem',"
+        + "'url':'http://test.org/cs',"
+        + "'version':'20210401',"
+        + "'concept':[{'code':'a','display':'A'}]}").replace('\'', '"')));
+
+    assertEquals(1, concepts.size());
+    assertEquals("a", concepts.get(0).getTag());
+  }
+
+  @Test
+  void testNotACodeSystem() {
+    assertThrows(IOException.class,
+        () -> reader.read(json("{'resourceType':'ValueSet','url':'http://test.org/vs'}")));
+  }
+
+  private InputStream json(String str) {
+    return new ByteArrayInputStream(str.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+  }
+}
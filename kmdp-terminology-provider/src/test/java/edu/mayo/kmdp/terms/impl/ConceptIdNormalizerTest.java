@@ -0,0 +1,51 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.mayo.kmdp.util.Util;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ConceptIdNormalizerTest {
+
+  @Test
+  void testNormalization() {
+    ConceptIdNormalizer normalizer = new ConceptIdNormalizer(10);
+    UUID uuid = UUID.randomUUID();
+
+    assertEquals(uuid, normalizer.toConceptUUID(uuid.toString()));
+    assertEquals(uuid, normalizer.toConceptUUID("http://test.org/scheme#" + uuid));
+    assertEquals(Util.uuid("tag"), normalizer.toConceptUUID("tag"));
+
+    assertEquals(uuid, normalizer.toUUID(uuid.toString()));
+    assertEquals(Util.uuid("tag"), normalizer.toUUID("tag"));
+  }
+
+  @Test
+  void testBoundedMemo() {
+    ConceptIdNormalizer normalizer = new ConceptIdNormalizer(10);
+    for (int j = 0; j < 100; j++) {
+      assertEquals(Util.uuid("tag" + j), normalizer.toConceptUUID("tag" + j));
+      assertTrue(normalizer.size() <= 20);
+    }
+    for (int j = 0; j < 100; j++) {
+      assertEquals(Util.uuid("tag" + j), normalizer.toConceptUUID("tag" + j));
+      assertTrue(normalizer.size() <= 20);
+    }
+  }
+
+  @Test
+  void testUUIDsNotMemoized() {
+    ConceptIdNormalizer normalizer = new ConceptIdNormalizer(10);
+    UUID uuid = UUID.randomUUID();
+    assertEquals(uuid, normalizer.toConceptUUID(uuid.toString()));
+    assertEquals(uuid, normalizer.toConceptUUID("http://test.org/scheme#" + uuid));
+    assertEquals(uuid, normalizer.toUUID(uuid.toString()));
+    assertEquals(0, normalizer.size());
+
+    normalizer.toUUID("tag");
+    normalizer.toConceptUUID("tag");
+    assertEquals(1, normalizer.size());
+  }
+}
@@ -0,0 +1,56 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static edu.mayo.kmdp.util.Util.uuid;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class ConceptIndexTest {
+
+  @Test
+  void testAliasLookup() {
+    List<ConceptDescriptor> concepts = new ArrayList<>();
+    for (int j = 0; j < 1000; j++) {
+      concepts.add(new ConceptDescriptor()
+          .withUuid(UUID.randomUUID())
+          .withTag("tag" + j));
+    }
+    ConceptIndex index = ConceptIndex.of(concepts,
+        cd -> new UUID[]{cd.getUuid(), uuid(cd.getTag())});
+
+    assertEquals(2000, index.size());
+    for (ConceptDescriptor cd : concepts) {
+      assertSame(cd, index.get(cd.getUuid()));
+      assertSame(cd, index.get(uuid(cd.getTag())));
+    }
+    assertNull(index.get(UUID.randomUUID()));
+    assertNull(index.get(null));
+  }
+
+  @Test
+  void testSharedKey() {
+    UUID shared = UUID.randomUUID();
+    ConceptDescriptor first = new ConceptDescriptor().withUuid(UUID.randomUUID());
+    ConceptDescriptor last = new ConceptDescriptor().withUuid(UUID.randomUUID());
+    List<ConceptDescriptor> concepts = new ArrayList<>();
+    concepts.add(first);
+    concepts.add(last);
+
+    ConceptIndex index = ConceptIndex.of(concepts, cd -> new UUID[]{cd.getUuid(), shared});
+    assertEquals(3, index.size());
+    assertSame(last, index.get(shared));
+
+    Map<UUID, ConceptDescriptor> entries = new HashMap<>();
+    index.forEach(entries::put);
+    assertEquals(3, entries.size());
+    assertSame(first, entries.get(first.getUuid()));
+  }
+}
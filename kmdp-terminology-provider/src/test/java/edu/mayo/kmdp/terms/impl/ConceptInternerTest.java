@@ -0,0 +1,129 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.id.Term;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class ConceptInternerTest {
+
+  UUID parentId = UUID.randomUUID();
+  UUID childId = UUID.randomUUID();
+
+  @Test
+  void testInternIdenticalDescriptors() {
+    ConceptInterner interner = new ConceptInterner();
+
+    List<ConceptDescriptor> v1 = interner.internAll(scheme("v1"));
+    List<ConceptDescriptor> v2 = interner.internAll(scheme("v1"));
+
+    assertSame(v1.get(0), v2.get(0));
+    assertSame(v1.get(1), v2.get(1));
+    assertSame(v1.get(0), v1.get(1).getAncestors()[0]);
+  }
+
+  @Test
+  void testInternSharedComponents() {
+    ConceptInterner interner = new ConceptInterner();
+
+    List<ConceptDescriptor> v1 = interner.internAll(scheme("v1"));
+    List<ConceptDescriptor> v2 = interner.internAll(scheme("v2"));
+
+    ConceptDescriptor child1 = v1.get(1);
+    ConceptDescriptor child2 = v2.get(1);
+    assertNotSame(child1, child2);
+    assertEquals(child1.getUuid(), child2.getUuid());
+    assertSame(child1.getName(), child2.getName());
+    assertSame(child1.getLabels(), child2.getLabels());
+    assertSame(child1.getNamespaceUri(), child2.getNamespaceUri());
+    assertSame(v1.get(0).getAncestors(), v2.get(0).getClosure());
+  }
+
+  @Test
+  void testInternDoesNotModifyInput() {
+    ConceptInterner interner = new ConceptInterner();
+    interner.internAll(scheme("v1"));
+
+    List<ConceptDescriptor> v1 = scheme("v1");
+    String name = v1.get(1).getName();
+    Term[] ancestors = v1.get(1).getAncestors();
+    List<ConceptDescriptor> canonical = interner.internAll(v1);
+
+    assertNotSame(v1.get(1), canonical.get(1));
+    assertSame(name, v1.get(1).getName());
+    assertSame(ancestors, v1.get(1).getAncestors());
+    assertSame(v1.get(0), v1.get(1).getAncestors()[0]);
+
+    // canonical descriptors are returned as they are
+    assertSame(canonical.get(1), interner.intern(canonical.get(1)));
+  }
+
+  @Test
+  void testInternCycle() {
+    ConceptInterner interner = new ConceptInterner();
+    List<ConceptDescriptor> v1 = scheme("v1");
+    // parent and child are each other's ancestor
+    v1.get(0).setAncestors(new Term[]{v1.get(1)});
+
+    List<ConceptDescriptor> canonical = interner.internAll(v1);
+    ConceptDescriptor parent = canonical.get(0);
+    ConceptDescriptor child = canonical.get(1);
+    assertSame(child, parent.getAncestors()[0]);
+    assertSame(parent, child.getAncestors()[0]);
+
+    // the descriptors in the cycle are not pooled, nor are their dependents
+    assertEquals(0, interner.size());
+  }
+
+  @Test
+  void testConcurrentIntern() {
+    ConceptInterner interner = new ConceptInterner();
+    List<CompletableFuture<List<ConceptDescriptor>>> interned = IntStream.range(0, 8)
+        .mapToObj(j -> CompletableFuture.supplyAsync(() -> interner.internAll(scheme("v1"))))
+        .collect(Collectors.toList());
+
+    List<ConceptDescriptor> first = interned.get(0).join();
+    for (CompletableFuture<List<ConceptDescriptor>> other : interned) {
+      List<ConceptDescriptor> canonical = other.join();
+      assertSame(first.get(0), canonical.get(0));
+      assertSame(first.get(1), canonical.get(1));
+    }
+    assertSame(first.get(0), first.get(1).getAncestors()[0]);
+    assertTrue(interner.size() >= 2);
+  }
+
+  private List<ConceptDescriptor> scheme(String version) {
+    ConceptDescriptor parent = concept(parentId, "parent", version);
+    ConceptDescriptor child = concept(childId, "child", version);
+    child.setAncestors(new Term[]{parent});
+    return Arrays.asList(parent, child);
+  }
+
+  private ConceptDescriptor concept(UUID uuid, String name, String version) {
+    Map<String, String> labels = new HashMap<>(Collections.singletonMap("alt", name + "s"));
+    ConceptDescriptor cd = new ConceptDescriptor()
+        .withUuid(uuid)
+        .withTag(new String(name.toCharArray()))
+        .withName(new String(name.toCharArray()))
+        .withVersionTag(version)
+        .withNamespaceUri(URI.create("http://test.org/scheme"))
+        .withLabels(labels);
+    cd.setAncestors(new Term[0]);
+    cd.setClosure(new Term[0]);
+    return cd;
+  }
+}
@@ -0,0 +1,72 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class LabelIndexTest {
+
+  ConceptDescriptor rule = concept("Clinical Rule", "rule");
+  ConceptDescriptor model = concept("Multi-Agent Decision Task Model", "MADTM");
+  ConceptDescriptor task = concept("Decision Task", "decision");
+
+  List<ConceptDescriptor> concepts = Arrays.asList(rule, model, task);
+  LabelIndex index = LabelIndex.of(concepts);
+
+  @Test
+  void testNoFilter() {
+    assertEquals(concepts, index.filter(null));
+    assertSame(index.filter(null), index.filter(""));
+    assertSame(index.filter(null), index.filter(" - "));
+  }
+
+  @Test
+  void testUnmodifiable() {
+    List<ConceptDescriptor> all = index.filter(null);
+    assertThrows(UnsupportedOperationException.class, () -> all.add(rule));
+    assertThrows(UnsupportedOperationException.class, all::clear);
+    assertThrows(UnsupportedOperationException.class,
+        () -> index.filter("decis").add(rule));
+
+    // later changes to the indexed list are not visible through the index
+    List<ConceptDescriptor> source = new ArrayList<>(concepts);
+    LabelIndex copied = LabelIndex.of(source);
+    source.clear();
+    assertEquals(concepts, copied.filter(null));
+  }
+
+  @Test
+  void testTokenPrefixMatch() {
+    assertEquals(Arrays.asList(model, task), index.filter("decis"));
+    assertEquals(Arrays.asList(model, task), index.filter("TASK dec"));
+    assertEquals(Collections.singletonList(model), index.filter("multi-agent"));
+    assertEquals(Collections.singletonList(rule), index.filter("clin"));
+  }
+
+  @Test
+  void testDesignationMatch() {
+    assertEquals(Collections.singletonList(model), index.filter("madt"));
+  }
+
+  @Test
+  void testNoMatch() {
+    assertTrue(index.filter("rule task").isEmpty());
+    assertTrue(index.filter("xyz").isEmpty());
+  }
+
+  private ConceptDescriptor concept(String name, String altLabel) {
+    return new ConceptDescriptor()
+        .withUuid(UUID.randomUUID())
+        .withName(name)
+        .withLabels(Collections.singletonMap("alt", altLabel));
+  }
+}
@@ -0,0 +1,73 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omg.spec.api4kp._20200801.id.Pointer;
+import org.omg.spec.api4kp._20200801.terms.model.ConceptDescriptor;
+
+class LexiconSnapshotTest {
+
+  @TempDir
+  public Path tmp;
+
+  @Test
+  void testRoundTrip() throws IOException {
+    Pointer scheme = new Pointer()
+        .withUuid(UUID.randomUUID())
+        .withTag("scheme")
+        .withVersionTag("20210401")
+        .withResourceId(URI.create("http://test/scheme"))
+        .withName("Test Scheme");
+    ConceptDescriptor cd = new ConceptDescriptor()
+        .withUuid(UUID.randomUUID())
+        .withTag("code")
+        .withName("Test Concept")
+        .withNamespaceUri(URI.create("http://test/scheme"))
+        .withReferentId(URI.create("http://test/referent"))
+        .withEstablishedOn(new Date(0))
+        .withLabels(Collections.singletonMap("alt", "Test"));
+
+    UUID assetId = UUID.randomUUID();
+    Path file = tmp.resolve("lexicons.bin");
+    LexiconSnapshot.write(file, Arrays.asList(
+        new LexiconSnapshot.Entry(assetId, "1.0.0", scheme, Collections.singletonList(cd)),
+        new LexiconSnapshot.Entry(assetId, "2.0.0", scheme, null)));
+
+    List<LexiconSnapshot.Entry> entries = LexiconSnapshot.read(file);
+    assertEquals(2, entries.size());
+
+    LexiconSnapshot.Entry entry = entries.get(0);
+    assertEquals(assetId, entry.getAssetUuid());
+    assertEquals("1.0.0", entry.getAssetVersionTag());
+    assertEquals(scheme.getUuid(), entry.getSchemePointer().getUuid());
+    assertEquals("Test Scheme", entry.getSchemePointer().getName());
+
+    ConceptDescriptor cd2 = entry.getConcepts().get(0);
+    assertEquals(cd.getUuid(), cd2.getUuid());
+    assertEquals(cd.getTag(), cd2.getTag());
+    assertEquals(cd.getName(), cd2.getName());
+    assertEquals(cd.getReferentId(), cd2.getReferentId());
+    assertEquals(cd.getEstablishedOn(), cd2.getEstablishedOn());
+    assertEquals(cd.getLabels(), cd2.getLabels());
+    assertEquals(0, cd2.getAncestors().length);
+
+    assertNull(entries.get(1).getConcepts());
+  }
+
+  @Test
+  void testMissingSnapshot() throws IOException {
+    assertTrue(LexiconSnapshot.read(tmp.resolve("none.bin")).isEmpty());
+  }
+}
@@ -0,0 +1,60 @@
+package edu.mayo.kmdp.terms.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class NegativeCacheTest {
+
+  AtomicLong now = new AtomicLong();
+
+  @Test
+  void testExpiration() {
+    NegativeCache cache = new NegativeCache(10, TimeUnit.NANOSECONDS, 100, now::get);
+    cache.add("x");
+    assertTrue(cache.contains("x"));
+    assertFalse(cache.contains("y"));
+
+    now.addAndGet(10);
+    assertFalse(cache.contains("x"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testEviction() {
+    NegativeCache cache = new NegativeCache(10, TimeUnit.NANOSECONDS, 2, now::get);
+    cache.add("a");
+    cache.add("b");
+    cache.add("c");
+    assertFalse(cache.contains("a"));
+    assertTrue(cache.contains("b"));
+    assertTrue(cache.contains("c"));
+
+    cache.clear();
+    assertFalse(cache.contains("b"));
+  }
+
+  @Test
+  void testGenerations() {
+    NegativeCache cache = new NegativeCache(10, TimeUnit.NANOSECONDS, 100, now::get);
+    cache.add("x", 1);
+    assertTrue(cache.contains("x", 1));
+
+    // a newer generation invalidates the entries, and entries of older ones are dropped
+    assertFalse(cache.contains("x", 2));
+    cache.add("y", 1);
+    assertFalse(cache.contains("y", 2));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testDisabled() {
+    NegativeCache cache = new NegativeCache(0, TimeUnit.SECONDS, 100, now::get);
+    cache.add("x");
+    assertFalse(cache.contains("x"));
+  }
+}
@@ -0,0 +1,81 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.mayo.kmdp.terms.metrics.InMemoryTermsMetrics.CallStats;
+import edu.mayo.kmdp.terms.metrics.TermsMetrics.Outcome;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.omg.spec.api4kp._20200801.Answer;
+
+class InMemoryTermsMetricsTest {
+
+  InMemoryTermsMetrics metrics = new InMemoryTermsMetrics();
+
+  @Test
+  void testTime() {
+    Answer<String> hit = Answer.of("x");
+    assertSame(hit, metrics.time("enum", "lookupTerm", () -> hit));
+    metrics.time("enum", "lookupTerm", Answer::notFound);
+    metrics.time("enum", "lookupTerm", Answer::unsupported);
+    assertThrows(IllegalStateException.class, () -> metrics.time("enum", "lookupTerm", () -> {
+      throw new IllegalStateException();
+    }));
+
+    CallStats stats = metrics.getCallStats("enum", "lookupTerm");
+    assertEquals(4, stats.getCalls());
+    assertEquals(1, stats.getHits());
+    assertEquals(1, stats.getMisses());
+    assertEquals(2, stats.getFailures());
+    assertEquals(0.25, stats.getHitRatio());
+    assertEquals(4, stats.getLatency().getCount());
+
+    assertNull(metrics.getCallStats("fhir", "lookupTerm"));
+  }
+
+  @Test
+  void testRecentCount() {
+    metrics.recordCall("fhir", "getTerm", 1_000, Outcome.HIT);
+    metrics.recordCall("fhir", "lookupTerm", 2_000, Outcome.MISS);
+    metrics.recordCall("fhir", "getTerms", 3_000, Outcome.HIT);
+
+    assertEquals(2, metrics.getRecentCount("fhir", Arrays.asList("getTerm", "lookupTerm")));
+    assertEquals(0, metrics.getRecentCount("enum", Arrays.asList("getTerm", "lookupTerm")));
+  }
+
+  @Test
+  void testExport() {
+    metrics.recordCall("fhir", "getTerm", 1_000, Outcome.HIT);
+    metrics.recordCall("fhir", "getTerm", 3_000, Outcome.MISS);
+    metrics.recordResolution("getTerm", "fhir", 1);
+    metrics.recordResolution("getTerm", "enum", 2);
+    metrics.recordResolution("getTerm", null, 2);
+
+    Map<String, Number> exported = new HashMap<>();
+    metrics.export(exported::put);
+
+    assertEquals(2L, exported.get("terms.calls.fhir.getTerm.count"));
+    assertEquals(0.5, exported.get("terms.calls.fhir.getTerm.hitRatio"));
+    assertEquals(3_000L, exported.get("terms.calls.fhir.getTerm.latency.max"));
+    assertEquals(3L, exported.get("terms.resolutions.getTerm.count"));
+    assertEquals(2L, exported.get("terms.resolutions.getTerm.fallthroughs"));
+    assertEquals(1L, exported.get("terms.resolutions.getTerm.unresolved"));
+    assertEquals(1L, exported.get("terms.resolutions.getTerm.answeredBy.enum"));
+    assertTrue(exported.containsKey("terms.calls.fhir.getTerm.latency.p99"));
+
+    metrics.clear();
+    assertTrue(metrics.getCallStats().isEmpty());
+  }
+
+  @Test
+  void testNoop() {
+    Answer<String> hit = Answer.of("x");
+    assertSame(hit, TermsMetrics.noop().time("enum", "lookupTerm", () -> hit));
+  }
+}
@@ -0,0 +1,35 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testBuckets() {
+    for (long v : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 1_000, 123_456_789L, Long.MAX_VALUE}) {
+      long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(v));
+      assertTrue(upper >= v);
+      assertTrue(upper - v <= v / 8, "Bucket too wide for " + v);
+    }
+  }
+
+  @Test
+  void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(99));
+
+    for (int j = 1; j <= 100; j++) {
+      histogram.record(j * 1_000L);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(50_500.0, histogram.getMean());
+    assertEquals(100_000, histogram.getMax());
+
+    long p95 = histogram.getPercentile(95);
+    assertTrue(p95 >= 95_000 && p95 <= 95_000 * 9 / 8, "p95 : " + p95);
+    assertEquals(100_000, histogram.getPercentile(100));
+  }
+}
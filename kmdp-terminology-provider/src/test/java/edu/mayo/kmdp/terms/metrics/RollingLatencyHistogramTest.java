@@ -0,0 +1,47 @@
+package edu.mayo.kmdp.terms.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RollingLatencyHistogramTest {
+
+  AtomicLong now = new AtomicLong();
+
+  @Test
+  void testWindow() {
+    RollingLatencyHistogram histogram =
+        new RollingLatencyHistogram(60, TimeUnit.SECONDS, 6, now::get);
+
+    histogram.record(5_000);
+    now.addAndGet(30_000);
+    histogram.record(1_000);
+    assertEquals(2, histogram.getCount());
+    assertEquals(5_000, histogram.getPercentile(100));
+
+    // the first slice falls out of the window
+    now.addAndGet(35_000);
+    assertEquals(1, histogram.getCount());
+    assertEquals(1_000, histogram.getPercentile(100));
+
+    now.addAndGet(60_000);
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(99));
+  }
+
+  @Test
+  void testCombinedPercentile() {
+    RollingLatencyHistogram h1 = new RollingLatencyHistogram(60, TimeUnit.SECONDS, 6, now::get);
+    RollingLatencyHistogram h2 = new RollingLatencyHistogram(60, TimeUnit.SECONDS, 6, now::get);
+    for (int j = 0; j < 99; j++) {
+      h1.record(1);
+    }
+    h2.record(1_000_000);
+
+    assertEquals(1, RollingLatencyHistogram.percentileOf(Arrays.asList(h1, h2), 99));
+    assertEquals(1_000_000, RollingLatencyHistogram.percentileOf(Arrays.asList(h1, h2), 100));
+  }
+}